@@ -0,0 +1,29 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ActionTree;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times how long a fresh JVM takes to give the first result of an {@link Equation} with only the core on the class path,
+ * run by the coldStart task of calculator-core.
+ */
+public class ColdStart {
+    private static final String EQUATION = "2+3\\cdot \\frac{4}{5}-\\sin\\left(\\frac{\\pi }{6}\\right)";
+
+    public static void main(String[] args) {
+        long main = System.nanoTime();
+        Expression.registerExpressions();
+        long registered = System.nanoTime();
+        ActionTree result = new Equation(args.length > 0 ? args[0] : EQUATION).evaluate();
+        String latex = result.toLatex();
+        long evaluated = System.nanoTime();
+
+        double total = ManagementFactory.getRuntimeMXBean().getUptime() - (System.nanoTime() - evaluated) / 1e6;
+        double registry = (registered - main) / 1e6;
+        double first = (evaluated - registered) / 1e6;
+        System.out.printf("Result: %s%n", latex);
+        System.out.printf("Cold start: %.0f ms to main, %.1f ms to register the expressions, %.1f ms to the first result, %.0f ms in total%n",
+                total - registry - first, registry, first, total);
+    }
+}
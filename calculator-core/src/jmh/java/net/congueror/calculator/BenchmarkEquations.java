@@ -0,0 +1,34 @@
+package net.congueror.calculator;
+
+/**
+ * The equations the benchmarks of the core are run with, by name.
+ */
+final class BenchmarkEquations {
+    private BenchmarkEquations() {}
+
+    /**
+     * @param shape sum for a sum of 40 numeric products with 152 steps, fraction for a fraction of two products of
+     * 25 factors with variables, mixed for a short expression with a constant and a function.
+     */
+    static String of(String shape) {
+        StringBuilder ltx = new StringBuilder();
+        switch (shape) {
+            case "sum" -> {
+                for (int i = 1; i <= 40; i++) {
+                    ltx.append(i > 1 ? "+" : "").append(i).append("\\cdot ").append(i % 7 + 2)
+                            .append("\\cdot \\left(").append(i).append("+").append(i % 5).append("\\right)");
+                }
+            }
+            case "fraction" -> {
+                StringBuilder factors = new StringBuilder();
+                for (int i = 1; i <= 25; i++) {
+                    factors.append(i > 1 ? "\\cdot " : "").append("\\left(x+y\\cdot ").append(i).append("+z\\cdot x\\right)");
+                }
+                ltx.append("\\frac{2\\cdot ").append(factors).append("}{3\\cdot ").append(factors).append("}");
+            }
+            case "mixed" -> ltx.append("3\\cdot 4+6\\cdot 2-\\left(5-2\\right)\\cdot 7+2\\pi +\\sin\\left(1\\right)");
+            default -> throw new IllegalArgumentException("Unknown equation " + shape);
+        }
+        return ltx.toString();
+    }
+}
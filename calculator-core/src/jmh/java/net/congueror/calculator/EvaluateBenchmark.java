@@ -0,0 +1,52 @@
+package net.congueror.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The answer of an equation through {@link Equation#evaluate()} against the last step of the step mode,
+ * which writes the LaTeX of every step like the page shows them. Both start from a copy of the same parsed equation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluateBenchmark {
+    @Param({"sum", "fraction", "mixed"})
+    public String shape;
+
+    private Equation parsed;
+
+    @Setup
+    public void setup() {
+        Expression.registerExpressions();
+        parsed = new Equation(BenchmarkEquations.of(shape));
+    }
+
+    @Benchmark
+    public int steps() {
+        int length = 0;
+        for (OperationStep step : parsed.share().simplifyExpression()) {
+            length += step.step().toLatex().length() + step.message().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public String evaluate() {
+        return parsed.share().evaluate().toLatex();
+    }
+}
@@ -0,0 +1,69 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The numeric kernels of the operators, which must not box their operands, and the folding of a sum of 50 numbers.
+ * Run with -Pprofilers=gc to see the allocations per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+    private static final int TERMS = 50;
+
+    private Expression.Operator sum;
+    private Expression.ComparisonOperator greater;
+    private final double[] terms = new double[TERMS];
+    private final double[] queue = new double[TERMS];
+    private Equation parsed;
+    private double total;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Expression.registerExpressions();
+        sum = (Expression.Operator) Equation.EXPRESSIONS.get(TokenPair.SUM);
+        greater = (Expression.ComparisonOperator) Equation.EXPRESSIONS.get(TokenPair.of(TokenType.COMPARISON, ">"));
+
+        StringBuilder ltx = new StringBuilder();
+        for (int i = 1; i <= TERMS; i++) {
+            terms[i - 1] = i + 0.5;
+            ltx.append(i > 1 ? "+" : "").append(i).append(".5");
+        }
+        parsed = new Equation(ltx.toString());
+    }
+
+    @Benchmark
+    public boolean applyAndExecute() {
+        total = sum.apply(total, next);
+        return greater.execute(total, next++);
+    }
+
+    @Benchmark
+    public double reduce() {
+        System.arraycopy(terms, 0, queue, 0, TERMS);
+        return sum.reduce(queue, TERMS);
+    }
+
+    @Benchmark
+    public Object evaluateSum() {
+        return parsed.share().evaluate();
+    }
+}
@@ -0,0 +1,52 @@
+package net.congueror.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps of long equations simplified by one thread and by several at once. Each thread rewrites its own trees,
+ * so the rewrites of one must not invalidate what another has cached about its tree.
+ * Every thread parses the equation once and simplifies copies of it, the parser prints what it parses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimplifyBenchmark {
+    @Param({"sum", "fraction"})
+    public String shape;
+
+    private Equation parsed;
+
+    @Setup
+    public void setup() {
+        Expression.registerExpressions();
+        parsed = new Equation(BenchmarkEquations.of(shape));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object oneThread() {
+        return parsed.share().simplifyExpression();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object fourThreads() {
+        return parsed.share().simplifyExpression();
+    }
+}
@@ -0,0 +1,52 @@
+package net.congueror.calculator.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of {@link MathHelper#sin} by the magnitude of the argument, it must not grow with it.
+ * Up to 2^19 pi the argument is reduced by Cody-Waite, above by Payne-Hanek.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrigBenchmark {
+    @Param({"1", "1e3", "1e6", "1e9", "1e20", "1e100", "1e300"})
+    public double magnitude;
+
+    private final double[] arguments = new double[1024];
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = magnitude * (0.5 + random.nextDouble() * 0.5);
+        }
+    }
+
+    @Benchmark
+    public double sin() {
+        return MathHelper.sin(arguments[next++ & 1023]);
+    }
+
+    @Benchmark
+    public double strictMath() {
+        return StrictMath.sin(arguments[next++ & 1023]);
+    }
+}
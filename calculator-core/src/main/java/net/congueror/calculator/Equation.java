@@ -0,0 +1,423 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.ExtendedList;
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+
+import javax.annotation.Nullable;
+import java.math.MathContext;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class Equation {
+
+    /**
+     * Replaced as a whole by {@link Expression#registerExpressions()}, never modified.
+     */
+    public static volatile ExpressionRegistry EXPRESSIONS = new ExpressionRegistry(Map.of());
+
+    private final ExtendedList<TokenPair> tokens = new ExtendedList<>();
+    private ActionTree root;
+    private boolean shared;
+    private boolean comparing;
+    private boolean hasVars;
+    private MathContext precision;
+
+    public Equation(String equation) {
+        this(equation, ParserType.PRECEDENCE);
+    }
+
+    public Equation(String equation, ParserType parserType) {
+        this.tokenize(equation);
+
+        this.root = new ActionTree(TokenPair.ROOT);
+        if (parserType == ParserType.LEGACY) {
+            this.parse(this.tokens, this.root);
+        } else {
+            PrecedenceParser parser = new PrecedenceParser(this.tokens);
+            parser.parse(this.root);
+            this.comparing = parser.isComparing();
+        }
+
+        System.out.println();
+        this.root.print();
+    }
+
+    /**
+     * Wraps an already parsed tree that may still be referenced elsewhere,
+     * it is only copied once one of the operations needs to rewrite it.
+     */
+    Equation(ActionTree root, boolean comparing, boolean hasVars) {
+        this.root = root;
+        this.shared = true;
+        this.comparing = comparing;
+        this.hasVars = hasVars;
+    }
+
+    /**
+     * @return an equation over the same tree that copies it before rewriting, this one is left untouched.
+     */
+    Equation share() {
+        return new Equation(root, comparing, hasVars);
+    }
+
+    int size() {
+        return root.size();
+    }
+
+    /**
+     * @return the root with every top level expression, {@link #getEquation()} is only the first of them.
+     */
+    ActionTree getRoot() {
+        return root;
+    }
+
+    /**
+     * Selects precise evaluation, numbers are then computed as doubles only while the result is exact
+     * and as BigDecimals rounded to the precision otherwise, constants and trigonometric functions included.
+     *
+     * @param precision the precision of the results, or null to evaluate with doubles, the default.
+     * @throws IllegalArgumentException if the precision is unlimited, irrational results would never end.
+     */
+    public void setPrecision(@Nullable MathContext precision) {
+        if (precision != null && precision.getPrecision() == 0)
+            throw new IllegalArgumentException("Precise evaluation needs a limited precision");
+        this.precision = precision;
+    }
+
+    @Nullable
+    public MathContext getPrecision() {
+        return precision;
+    }
+
+    private ActionTree ownRoot() {
+        if (shared) {
+            root = root._clone();
+            shared = false;
+        }
+        return root;
+    }
+
+    private void tokenize(String equation) {
+        System.out.println(equation);
+        hasVars = EXPRESSIONS.lexer().tokenize(equation, tokens);
+
+        tokens.forEach(System.out::println);
+    }
+
+    private void parse(ExtendedList<TokenPair> tokens, ActionTree root) {
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(TokenType.ENC_OP)) {
+                Expression.EncapsulationOperator encOp = ((Expression.EncapsulationOperator) EXPRESSIONS.get(tokens.get(i)));
+                if (!encOp.isLeft() && i + 1 < tokens.size() && tokens.get(i + 1).is(TokenType.TRIG_FUN)) {
+                    tokens.add(i + 1, TokenPair.PRODUCT);
+                    i = 0;
+                }
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(TokenType.ENC_OP)) {
+                Expression.EncapsulationOperator encOp = ((Expression.EncapsulationOperator) EXPRESSIONS.get(tokens.get(i)));
+                if (encOp.isLeft()) {
+                    final int startIndex = i;
+                    ActionTree child = new ActionTree(tokens.get(i));
+                    ExtendedList<TokenPair> subTokens = new ExtendedList<>();
+                    int parDepth = 0;
+                    i++;
+                    while (i < tokens.size() && (parDepth > 0 || !tokens.get(i).equals(encOp.counterpart()))) {
+                        if (tokens.get(i).equals(tokens.get(startIndex))) {
+                            parDepth++;
+                        } else if (tokens.get(i).equals(encOp.counterpart())) {
+                            parDepth--;
+                        }
+                        subTokens.add(tokens.get(i));
+                        i++;
+                    }
+
+                    this.parse(subTokens, child);
+
+                    tokens.removeRange(startIndex, i - startIndex + 1);
+                    tokens.add(startIndex, new TokenPair(child));
+                    i = 0;
+                }
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).equals(TokenType.OP, "+") && (i - 1 < 0 || tokens.get(i - 1).is(TokenType.OP))) {
+                tokens.remove(i);
+                i = 0;
+            } else if (tokens.get(i).isOr(TokenType.NUM, TokenType.CONST, TokenType.VAR)) {
+                if (i - 1 >= 0 && tokens.get(i - 1).isOr(TokenType.CONST, TokenType.ENC_OP, TokenType.NODE, TokenType.VAR)) {
+                    tokens.add(i, TokenPair.PRODUCT);
+                    i = 0;
+                } else if (i + 1 < tokens.size() && tokens.get(i + 1).isOr(TokenType.CONST, TokenType.ENC_OP, TokenType.NODE, TokenType.TRIG_FUN, TokenType.STRUCT, TokenType.VAR)) {
+                    tokens.add(i + 1, TokenPair.PRODUCT);
+                    i = 0;
+                }
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(TokenType.STRUCT)) {
+                Expression.Construct struct = ((Expression.Construct) EXPRESSIONS.get(tokens.get(i)));
+                var child = new ActionTree(tokens.get(i));
+                int length = struct.inputs();
+                for (int j = 1; j <= length; j++) {
+                    child.insert(toNode(tokens.get(i + j)));
+                }
+
+                tokens.removeRange(i, length + 1);
+                tokens.add(i, new TokenPair(child));
+                i = 0;
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(TokenType.TRIG_FUN)) {
+                var child = new ActionTree(tokens.get(i));
+                child.insert(toNode(tokens.get(i + 1)));
+
+                tokens.removeRange(i, 2);
+                tokens.add(i, new TokenPair(child));
+                i = 0;
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).equals(TokenType.DEL_OP, "-")) {
+                var child = new ActionTree(tokens.get(i));
+                child.insert(toNode(tokens.get(i + 1)));
+
+                tokens.removeRange(i, 2);
+                if (!(i - 1 < 0)) {
+                    tokens.add(i, TokenPair.SUM);
+                    tokens.add(i + 1, new TokenPair(child));
+                } else
+                    tokens.add(i, new TokenPair(child));
+                i = 0;
+            } else if (tokens.get(i).equals(TokenType.DEL_OP, "\\div")) {
+                var child = new ActionTree(tokens.get(i));
+                child.insert(toNode(tokens.get(i + 1)));
+
+                tokens.removeRange(i, 2);
+                tokens.add(i, TokenPair.PRODUCT);
+                tokens.add(i + 1, new TokenPair(child));
+                i = 0;
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).equals(TokenType.OP, "\\cdot")) {
+                ActionTree child = new ActionTree(tokens.get(i));
+
+                ActionTree at1 = toNode(tokens.get(i - 1));
+                ActionTree at2 = toNode(tokens.get(i + 1));
+
+                if (at1.value().equals(tokens.get(i))) {
+                    at1.insert(at2);
+                    tokens.removeRange(i, 2);
+                } else if (at2.value().equals(tokens.get(i))) {
+                    at2.insert(at1);
+                    tokens.removeRange(i - 1, 2);
+                } else {
+                    child.insert(at1);
+                    child.insert(at2);
+
+                    tokens.removeRange(i - 1, 3);
+                    tokens.add(i - 1, new TokenPair(child));
+                }
+                i = 0;
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).equals(TokenType.OP, "+")) {
+                ActionTree child = new ActionTree(tokens.get(i));
+
+                ActionTree at1 = toNode(tokens.get(i - 1));
+                ActionTree at2 = toNode(tokens.get(i + 1));
+
+                if (at1.value().equals(tokens.get(i))) {
+                    at1.insert(at2);
+                    tokens.removeRange(i, 2);
+                } else if (at2.value().equals(tokens.get(i))) {
+                    at2.insert(at1);
+                    tokens.removeRange(i - 1, 2);
+                } else {
+                    child.insert(at1);
+                    child.insert(at2);
+
+                    tokens.removeRange(i - 1, 3);
+                    tokens.add(i - 1, new TokenPair(child));
+                }
+                i = 0;
+            }
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(TokenType.COMPARISON)) {
+                if (comparing)
+                    throw new ArithmeticException("Cannot have more than 1 comparison operator");
+                comparing = true;
+                try {
+                    ActionTree child = new ActionTree(tokens.get(i));
+
+                    ActionTree at1 = toNode(tokens.get(i - 1));
+                    ActionTree at2 = toNode(tokens.get(i + 1));
+
+                    child.insert(at1);
+                    child.insert(at2);
+
+                    tokens.removeRange(i - 1, 3);
+                    tokens.add(i - 1, new TokenPair(child));
+                } catch (IndexOutOfBoundsException e) {
+                    comparing = false;
+                    tokens.remove(i);
+                }
+            }
+        }
+
+        for (TokenPair token : tokens) {
+            root.insert(toNode(token));
+        }
+    }
+
+    private static ActionTree toNode(TokenPair token) {
+        return token.is(TokenType.NODE) ? token.node() : new ActionTree(token);
+    }
+
+    public ActionTree getEquation() {
+        return root.getChild();
+    }
+
+    public ExtendedList<EquationActions> getActions() {
+        var a = new ExtendedList<EquationActions>();
+        if (comparing && hasVars)
+            a.add(EquationActions.SOLVE);
+        else if (comparing)
+            a.add(EquationActions.COMPARE);
+        else
+            a.add(EquationActions.SIMPLIFY);
+        return a;
+    }
+
+    public ExtendedList<OperationStep> simplifyExpression() {
+        ExtendedList<OperationStep> steps = new ExtendedList<>();
+        OperationStep beginning = simplifyExpression(steps::add);
+        if (beginning != null)
+            steps.set(0, beginning);
+        return steps;
+    }
+
+    public ExtendedList<OperationStep> compareExpression() {
+        ExtendedList<OperationStep> steps = new ExtendedList<>();
+        steps.set(0, compareExpression(steps::add));
+        return steps;
+    }
+
+    public ExtendedList<OperationStep> solveEquation() {
+        ExtendedList<OperationStep> steps = new ExtendedList<>();
+        steps.set(0, solveEquation(steps::add));
+        return steps;
+    }
+
+    /**
+     * Hands every step of {@link #simplifyExpression()} to the consumer as soon as it is made. The first step is
+     * the equation as entered, the list version replaces it with the equation and its result once that is known.
+     *
+     * @return the step that replaces the first one, null if the first step stays.
+     */
+    @Nullable
+    public OperationStep simplifyExpression(Consumer<OperationStep> steps) {
+        StepRecorder recorder = new StepRecorder(steps);
+        ActionTree root = ownRoot();
+        root.simplifyExpression(root, recorder, precision);
+        return recorder.last.prefix().isEmpty() ? null : recorder.beginning();
+    }
+
+    /**
+     * Streaming counterpart of {@link #compareExpression()}, see {@link #simplifyExpression(Consumer)}.
+     *
+     * @return the step that replaces the first one.
+     */
+    public OperationStep compareExpression(Consumer<OperationStep> steps) {
+        StepRecorder recorder = new StepRecorder(steps);
+        ActionTree root = ownRoot();
+        root.compareExpression(root, recorder, precision);
+        return recorder.beginning();
+    }
+
+    /**
+     * Streaming counterpart of {@link #solveEquation()}, see {@link #simplifyExpression(Consumer)}.
+     *
+     * @return the step that replaces the first one.
+     */
+    public OperationStep solveEquation(Consumer<OperationStep> steps) {
+        StepRecorder recorder = new StepRecorder(steps);
+        ActionTree root = ownRoot();
+        root.solveEquation(root, recorder, precision);
+        return recorder.beginning();
+    }
+
+    /**
+     * Evaluates the equation without recording any step.
+     *
+     * @return the same tree as the last step of the operation in {@link #getActions()}.
+     */
+    public ActionTree evaluate() {
+        return ownRoot().evaluateExpression(comparing, precision).getChild();
+    }
+
+    /**
+     * Passes the steps on and keeps the first and the last one, which make up the step that replaces the first.
+     */
+    private static class StepRecorder implements Consumer<OperationStep> {
+        private final Consumer<OperationStep> steps;
+        private OperationStep first;
+        private OperationStep last;
+
+        private StepRecorder(Consumer<OperationStep> steps) {
+            this.steps = steps;
+        }
+
+        @Override
+        public void accept(OperationStep step) {
+            if (first == null)
+                first = step;
+            last = step;
+            steps.accept(step);
+        }
+
+        /**
+         * @return the first equation and the last one joined by the prefix of the last step.
+         */
+        private OperationStep beginning() {
+            var beginning = new ActionTree(last.prefix());
+            beginning.insert(first.step().getChild());
+            beginning.insert(last.step().getChild());
+            return new OperationStep(beginning, "");
+        }
+    }
+
+    /**
+     * Selects the parser engine, LEGACY rescans the token list after every reduction
+     * and is kept to compare results against the single pass PRECEDENCE parser.
+     */
+    public enum ParserType {
+        LEGACY,
+        PRECEDENCE
+    }
+
+    /**
+     * The operations an equation is shown with, see {@link #getActions()}.
+     */
+    public enum EquationActions {
+        SIMPLIFY,
+        COMPARE,
+        SOLVE
+    }
+}
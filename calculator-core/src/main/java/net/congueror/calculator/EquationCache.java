@@ -0,0 +1,142 @@
+package net.congueror.calculator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Least recently used cache of parsed equations, keyed by the input with insignificant whitespace removed.
+ * Bounded both by the amount of entries and by an estimate of the memory the entries hold.
+ * Cached trees are never handed out directly, every lookup returns an {@link Equation} that copies
+ * the tree before the first operation rewrites it.
+ */
+public class EquationCache {
+    private static final int ENTRY_BYTES = 64;
+    private static final int NODE_BYTES = 96;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EquationCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the parsed equation, parsing it only if no equal input is cached.
+     *
+     * @throws ArithmeticException if the equation cannot be parsed, failures are not cached.
+     */
+    public Equation get(String equation) {
+        String key = normalize(equation);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.equation.share();
+            }
+            misses++;
+        }
+
+        Equation parsed = new Equation(key);
+        Entry entry = new Entry(parsed, ENTRY_BYTES + 2L * key.length() + (long) NODE_BYTES * parsed.size());
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null)
+                bytes -= previous.bytes;
+            bytes += entry.bytes;
+            evict();
+        }
+        return parsed.share();
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || bytes > maxBytes)) {
+            bytes -= iterator.next().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EquationCache{entries=" + entries.size() + ", bytes=" + bytes + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+
+    /**
+     * Removes every space that cannot change the tokens. A space is kept after a backslash, between a letter and
+     * a letter or parenthesis, where it ends a command like \left, and around E or between two digits, where it ends a number.
+     */
+    static String normalize(String equation) {
+        StringBuilder sb = new StringBuilder(equation.length());
+        for (int i = 0; i < equation.length(); i++) {
+            char c = equation.charAt(i);
+            if (c != ' ') {
+                sb.append(c);
+                continue;
+            }
+
+            int next = i;
+            while (next < equation.length() && equation.charAt(next) == ' ') {
+                next++;
+            }
+            if (!sb.isEmpty() && next < equation.length()) {
+                char prev = sb.charAt(sb.length() - 1);
+                char following = equation.charAt(next);
+                if (prev == '\\' || prev == 'E' || (isLetter(prev) && (isLetter(following) || following == '(' || following == ')'))
+                        || (isNumeric(prev) && (isNumeric(following) || following == 'E')))
+                    sb.append(' ');
+            }
+            i = next - 1;
+        }
+        return sb.toString();
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isNumeric(char c) {
+        return (c >= '0' && c <= '9') || c == '.';
+    }
+
+    private static final class Entry {
+        private final Equation equation;
+        private final long bytes;
+
+        private Entry(Equation equation, long bytes) {
+            this.equation = equation;
+            this.bytes = bytes;
+        }
+    }
+}
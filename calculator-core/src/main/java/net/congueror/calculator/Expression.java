@@ -0,0 +1,417 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.helpers.BigMathHelper;
+import net.congueror.calculator.helpers.MathHelper;
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.ExtendedList;
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+
+public abstract class Expression {
+
+    final TokenType type;
+
+    public Expression(TokenType type) {
+        this.type = type;
+    }
+
+    public static void registerExpressions() {
+        Map<String, Expression> expressions = new HashMap<>();
+        expressions.put("=", new ComparisonOperator(MathHelper::equals));
+        expressions.put("\\ne", new ComparisonOperator((a, b) -> !MathHelper.equals(a, b)));
+        expressions.put("\\approx", new ComparisonOperator(MathHelper::equals));
+        expressions.put(">", new ComparisonOperator((a, b) -> a > b));
+        expressions.put("<", new ComparisonOperator((a, b) -> a < b));
+        expressions.put("\\ge", new ComparisonOperator((a, b) -> a >= b));
+        expressions.put("\\le", new ComparisonOperator((a, b) -> a <= b));
+
+        expressions.put("\\implies", new LogicOperator());
+
+        expressions.put("+", new Operator(Double::sum, BigDecimal::add, MathHelper::isExactSum, "sum"));
+        expressions.put("-", new DelegateOperator(TokenPair.SUM));
+        expressions.put("\\cdot", new Operator((a, b) -> a * b, BigDecimal::multiply, MathHelper::isExactProduct, "product"));
+        expressions.put("\\div", new DelegateOperator(TokenPair.PRODUCT));
+
+        expressions.put("\\left(", new EncapsulationOperator(TokenPair.of(TokenType.ENC_OP, "\\right)"), true));
+        expressions.put("\\right)", new EncapsulationOperator(TokenPair.of(TokenType.ENC_OP, "\\left("), false));
+        expressions.put("{", new EncapsulationOperator(TokenPair.of(TokenType.ENC_OP, "}"), true));
+        expressions.put("}", new EncapsulationOperator(TokenPair.BRACES, false));
+
+        expressions.put("\\pi", new Constant(Math.PI, BigMathHelper::pi));
+        expressions.put("e", new Constant(Math.E, BigMathHelper::e));
+
+        expressions.put("\\frac", new Construct("fraction", 2, (ats, mc) -> MathHelper.fraction(ats[0], ats[1], mc)));
+
+        expressions.put("\\sin", new TrigonometricFunction("sine", a -> MathHelper.number(MathHelper.sin(a)),
+                (a, mc) -> BigMathHelper.number(BigMathHelper.sin(a, mc))));
+        expressions.put("\\cos", new TrigonometricFunction("cosine", a -> MathHelper.number(MathHelper.cos(a)),
+                (a, mc) -> BigMathHelper.number(BigMathHelper.cos(a, mc))));
+        expressions.put("\\tan", new TrigonometricFunction("tangent", a -> MathHelper.number(MathHelper.tan(a)),
+                BigMathHelper::tan));
+        expressions.put("\\arcsin", new TrigonometricFunction("arcsine", MathHelper::arcsin, BigMathHelper::arcsin, true));
+        expressions.put("\\arccos", new TrigonometricFunction("arccosine", MathHelper::arccos, BigMathHelper::arccos, true));
+        expressions.put("\\arctan", new TrigonometricFunction("arctangent", MathHelper::arctan, BigMathHelper::arctan, true));
+        expressions.put("\\csc", new TrigonometricFunction("cosecant", a -> MathHelper.number(1 / MathHelper.sin(a)),
+                BigMathHelper::csc));
+        expressions.put("\\sec", new TrigonometricFunction("secant", a -> MathHelper.number(1 / MathHelper.cos(a)),
+                BigMathHelper::sec));
+        expressions.put("\\cot", new TrigonometricFunction("cotangent", a -> MathHelper.number(1 / MathHelper.tan(a)),
+                BigMathHelper::cot));
+        expressions.put("\\arccsc", new TrigonometricFunction("arccosecant", a -> MathHelper.arcsin(1 / a),
+                (a, mc) -> BigMathHelper.arcsin(BigDecimal.ONE.divide(a, mc), mc), true));
+        expressions.put("\\arcsec", new TrigonometricFunction("arcsecant", a -> MathHelper.arccos(1 / a),
+                (a, mc) -> BigMathHelper.arccos(BigDecimal.ONE.divide(a, mc), mc), true));
+        expressions.put("\\arccot", new TrigonometricFunction("arccotangent", a -> MathHelper.arctan(1 / a),
+                (a, mc) -> BigMathHelper.arctan(BigDecimal.ONE.divide(a, mc), mc), true));
+
+        Equation.EXPRESSIONS = new ExpressionRegistry(expressions);
+    }
+
+    public abstract void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children);
+
+    /**
+     * childrenAmount >= 2
+     */
+    public static class Operator extends Expression {
+
+        private final DoubleBinaryOperator fun;
+        private final BigOperator bigFun;
+        private final Exactness exactness;
+        private final String verbose;
+        public Operator(DoubleBinaryOperator fun, BigOperator bigFun, Exactness exactness, String verbose) {
+            super(TokenType.OP);
+            this.fun = fun;
+            this.bigFun = bigFun;
+            this.exactness = exactness;
+            this.verbose = verbose;
+        }
+
+        public double apply(double a, double b) {
+            return fun.applyAsDouble(a, b);
+        }
+
+        /**
+         * Applies the operator to two numbers, as doubles while the double result is provably exact
+         * and as BigDecimals rounded to the precision otherwise.
+         * Without a precision, or with an infinite or NaN operand, it is the double operation.
+         */
+        public TokenPair apply(TokenPair a, TokenPair b, @Nullable MathContext precision) {
+            double x = a.getAsNum();
+            double y = b.getAsNum();
+            double result = fun.applyAsDouble(x, y);
+            if (precision == null || !a.isFinite() || !b.isFinite()
+                    || !a.isBig() && !b.isBig() && Double.isFinite(result) && exactness.test(x, y, result))
+                return new TokenPair(result);
+            return TokenPair.of(bigFun.apply(a.getAsBig(), b.getAsBig(), precision));
+        }
+
+        /**
+         * Folds the first count values in one call, in the order the simplification shows it:
+         * the first two operands are combined and the result queues up behind the remaining ones.
+         * The array is used as the queue, so its contents are overwritten.
+         */
+        public double reduce(double[] values, int count) {
+            int head = 0;
+            int tail = count;
+            while (count > 1) {
+                double a = values[head];
+                head = head + 1 == values.length ? 0 : head + 1;
+                double b = values[head];
+                head = head + 1 == values.length ? 0 : head + 1;
+                if (tail == values.length)
+                    tail = 0;
+                values[tail++] = fun.applyAsDouble(a, b);
+                count--;
+            }
+            return values[head];
+        }
+
+        /**
+         * Precise counterpart of {@link #reduce(double[], int)}, folding in the same order with {@link #apply(TokenPair, TokenPair, MathContext)}.
+         */
+        public TokenPair reduce(TokenPair[] values, int count, MathContext precision) {
+            int head = 0;
+            int tail = count;
+            while (count > 1) {
+                TokenPair a = values[head];
+                head = head + 1 == values.length ? 0 : head + 1;
+                TokenPair b = values[head];
+                head = head + 1 == values.length ? 0 : head + 1;
+                if (tail == values.length)
+                    tail = 0;
+                values[tail++] = apply(a, b, precision);
+                count--;
+            }
+            return values[head];
+        }
+
+        public String verbose() {
+            return verbose;
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            for (int i = 0; i < children.size(); i++) {
+                ActionTree child = children.get(i);
+                if (i > 0 && !child.value().is(TokenType.DEL_OP) && (!child.value().is(TokenType.NUM) || !child.value().hasMinus())) {
+                    ltx.append(value.value()).append(" ");
+                }
+                child.toLatex(ltx);
+            }
+        }
+
+        @FunctionalInterface
+        public interface BigOperator {
+            BigDecimal apply(BigDecimal a, BigDecimal b, MathContext precision);
+        }
+
+        /**
+         * Whether the result the double operation rounded to is exactly the result of the operation.
+         */
+        @FunctionalInterface
+        public interface Exactness {
+            boolean test(double a, double b, double result);
+        }
+    }
+
+    /**
+     * childrenAmount == 1
+     */
+    public static class DelegateOperator extends Expression {
+
+        private final TokenPair delegate;
+        public DelegateOperator(TokenPair delegate) {
+            super(TokenType.DEL_OP);
+            this.delegate = delegate;
+        }
+
+        public TokenPair getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            ltx.append(value.value());
+            children.get(0).toLatex(ltx);
+        }
+    }
+
+    /**
+     * childrenAmount == 1
+     */
+    public static class EncapsulationOperator extends Expression {
+
+        private final TokenPair counterpart;
+        private final boolean isLeft;
+        public EncapsulationOperator(TokenPair counterpart, boolean isLeft) {
+            super(TokenType.ENC_OP);
+            this.counterpart = counterpart;
+            this.isLeft = isLeft;
+        }
+
+        public TokenPair counterpart() {
+            return counterpart;
+        }
+
+        public boolean isLeft() {
+            return isLeft;
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            Expression.EncapsulationOperator op1 = ((Expression.EncapsulationOperator) Equation.EXPRESSIONS.get(value));
+            ltx.append(value.value());
+            children.get(0).toLatex(ltx);
+            ltx.append(op1.counterpart().value());
+        }
+    }
+
+    /**
+     * childrenAmount == 2
+     */
+    public static class ComparisonOperator extends Expression {
+
+        private final Comparison predicate;
+        public ComparisonOperator(Comparison predicate) {
+            super(TokenType.COMPARISON);
+            this.predicate = predicate;
+        }
+
+        public boolean execute(double a, double b) {
+            return predicate.test(a, b);
+        }
+
+        /**
+         * With a precision, numbers backed by a BigDecimal are rounded to it and compared exactly.
+         * Every predicate only depends on the order of the numbers, so it is tested on the sign of their comparison and 0.
+         */
+        public boolean execute(TokenPair a, TokenPair b, @Nullable MathContext precision) {
+            if (precision == null || !a.isBig() && !b.isBig() || !a.isFinite() || !b.isFinite())
+                return execute(a.getAsNum(), b.getAsNum());
+            return predicate.test(a.getAsBig().round(precision).compareTo(b.getAsBig().round(precision)), 0);
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            children.get(0).toLatex(ltx);
+            ltx.append(value.value());
+            children.get(1).toLatex(ltx);
+        }
+
+        @FunctionalInterface
+        public interface Comparison {
+            boolean test(double a, double b);
+        }
+    }
+
+    public static class LogicOperator extends Expression {
+
+        public LogicOperator() {
+            super(TokenType.LOGIC);
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            children.get(0).toLatex(ltx);
+            ltx.append(value.value()).append(" ");
+            children.get(1).toLatex(ltx);
+        }
+    }
+
+    public static class Construct extends Expression {
+
+        private final String verbose;
+        private final int inputs;
+        private final BiFunction<ActionTree[], MathContext, ActionTree> fun;
+
+        /**
+         * @param fun gets the inputs and the precision of the evaluation, null when it is in doubles.
+         */
+        public Construct(String verbose, int inputs, BiFunction<ActionTree[], MathContext, ActionTree> fun) {
+            super(TokenType.STRUCT);
+            this.verbose = verbose;
+            this.inputs = inputs;
+            this.fun = fun;
+        }
+
+        public String verbose() {
+            return verbose;
+        }
+
+        public int inputs() {
+            return inputs;
+        }
+
+        @Nullable
+        public ActionTree execute(ActionTree[] inputs, @Nullable MathContext precision) {
+            if (inputs.length != inputs()) {
+                throw new ArithmeticException("Invalid number of inputs in construct, " + verbose);
+            }
+            return fun.apply(inputs, precision);
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            ltx.append(value.value());
+            for (ActionTree child : children) {
+                child.toLatex(ltx);
+            }
+        }
+    }
+
+    /**
+     * childrenAmount == 1
+     */
+
+    public static class TrigonometricFunction extends Expression {
+
+        private final String name;
+        private final DoubleFunction<ActionTree> fun;
+        private final BigFunction bigFun;
+        private final boolean inverse;
+
+        public TrigonometricFunction(String name, DoubleFunction<ActionTree> fun, BigFunction bigFun, boolean inverse) {
+            super(TokenType.TRIG_FUN);
+            this.name = name;
+            this.fun = fun;
+            this.bigFun = bigFun;
+            this.inverse = inverse;
+        }
+
+        public TrigonometricFunction(String name, DoubleFunction<ActionTree> fun, BigFunction bigFun) {
+            this(name, fun, bigFun, false);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * With a precision the function is computed from BigDecimals, except for 0 and infinite or NaN numbers
+         * whose double results are already exact.
+         */
+        public ActionTree execute(TokenPair input, @Nullable MathContext precision) {
+            double a = input.getAsNum();
+            if (precision == null || !input.isBig() && (a == 0 || !Double.isFinite(a)))
+                return fun.apply(a);
+            return bigFun.apply(input.getAsBig(), precision);
+        }
+
+        public boolean isInverse() {
+            return inverse;
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            ltx.append(value.value());
+            children.get(0).toLatex(ltx);
+        }
+
+        @FunctionalInterface
+        public interface BigFunction {
+            ActionTree apply(BigDecimal a, MathContext precision);
+        }
+    }
+
+    /**
+     * childrenAmount == 0
+     */
+    public static class Constant extends Expression {
+
+        private final double value;
+        private final Function<MathContext, BigDecimal> bigValue;
+
+        public Constant(double value, Function<MathContext, BigDecimal> bigValue) {
+            super(TokenType.CONST);
+            this.value = value;
+            this.bigValue = bigValue;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        /**
+         * @return the value as a number, rounded to the precision or to a double without one.
+         */
+        public TokenPair number(@Nullable MathContext precision) {
+            return precision == null ? new TokenPair(value) : TokenPair.of(bigValue.apply(precision));
+        }
+
+        @Override
+        public void toLatex(StringBuilder ltx, TokenPair value, ExtendedList<ActionTree> children) {
+            ltx.append(value.value());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.TokenPair;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the registered expressions together with the lexer built from them.
+ * Expressions are looked up by the id of their canonical token, so after tokenizing no string is hashed again.
+ */
+public final class ExpressionRegistry {
+
+    private final Map<String, Expression> expressions;
+    private final Expression[] byId;
+    private final Lexer lexer;
+
+    ExpressionRegistry(Map<String, Expression> expressions) {
+        this.expressions = Map.copyOf(expressions);
+
+        int size = 0;
+        for (Map.Entry<String, Expression> entry : this.expressions.entrySet()) {
+            size = Math.max(size, TokenPair.of(entry.getValue().type, entry.getKey()).id() + 1);
+        }
+        this.byId = new Expression[size];
+        for (Map.Entry<String, Expression> entry : this.expressions.entrySet()) {
+            byId[TokenPair.of(entry.getValue().type, entry.getKey()).id()] = entry.getValue();
+        }
+        this.lexer = new Lexer(this.expressions);
+    }
+
+    /**
+     * @return the expression the token was registered with, null for numbers, variables and unregistered tokens.
+     */
+    public Expression get(TokenPair token) {
+        int id = token.id();
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    public Map<String, Expression> expressions() {
+        return expressions;
+    }
+
+    Lexer lexer() {
+        return lexer;
+    }
+}
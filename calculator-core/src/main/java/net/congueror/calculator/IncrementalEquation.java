@@ -0,0 +1,224 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.ExtendedList;
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Front end for an expression that is edited one keystroke at a time.
+ * Every update is diffed against the previous text by common prefix and suffix, only the damaged
+ * token span is lexed again and encapsulations that lie outside the damage keep their parsed
+ * {@link ActionTree}, so they are inserted into the new tree as the very same nodes.
+ */
+public class IncrementalEquation {
+
+    private final ExtendedList<TokenPair> tokens = new ExtendedList<>();
+    private final ExtendedList<Slot> slots = new ExtendedList<>();
+    private final Map<Slot, Group> groups = new HashMap<>();
+    private String equation;
+    private int vars;
+    private int parenthesisDepth;
+    private int dirtyStart = -1;
+    private int dirtyEnd = -1;
+
+    /**
+     * Applies the new text and parses it, reusing whatever the edit did not touch.
+     * The returned equation copies the tree before any operation rewrites it.
+     */
+    public Equation update(String equation) {
+        if (this.equation == null) {
+            relex(equation, 0, 0, 0);
+        } else if (!this.equation.equals(equation)) {
+            String old = this.equation;
+            int limit = Math.min(old.length(), equation.length());
+            int prefix = 0;
+            while (prefix < limit && old.charAt(prefix) == equation.charAt(prefix)) {
+                prefix++;
+            }
+            int suffix = 0;
+            while (suffix < limit - prefix && old.charAt(old.length() - 1 - suffix) == equation.charAt(equation.length() - 1 - suffix)) {
+                suffix++;
+            }
+            relex(equation, prefix, old.length() - suffix, equation.length() - suffix);
+        }
+
+        if (parenthesisDepth < 0)
+            throw new ArithmeticException("Found unexpected )");
+        if (parenthesisDepth != 0)
+            throw new ArithmeticException("Expected ), but never found.");
+
+        ActionTree root = new ActionTree(TokenPair.ROOT);
+        Parser parser = new Parser();
+        parser.parse(root);
+        dirtyStart = dirtyEnd = -1;
+        return new Equation(root, parser.isComparing(), vars > 0);
+    }
+
+    /**
+     * Replaces the tokens of the old text range [start, oldEnd) which became [start, newEnd).
+     * Lexing restarts two tokens before the damage, the furthest a number exponent can look ahead,
+     * and stops as soon as it lands on the start of an old token inside the unchanged suffix.
+     */
+    private void relex(String equation, int start, int oldEnd, int newEnd) {
+        Lexer lexer = Equation.EXPRESSIONS.lexer();
+
+        final int delta = newEnd - oldEnd;
+        int first = 0;
+        while (first < slots.size() && slots.get(first).end < start) {
+            first++;
+        }
+        final int from = Math.max(0, first - 2);
+
+        ExtendedList<TokenPair> newTokens = new ExtendedList<>();
+        ExtendedList<Slot> newSlots = new ExtendedList<>();
+        int pos = from == 0 ? 0 : slots.get(from).start;
+        int to = slots.size();
+        int old = from;
+        try {
+            while (pos < equation.length()) {
+                if (pos >= newEnd) {
+                    while (old < slots.size() && (slots.get(old).start < oldEnd || slots.get(old).start + delta < pos)) {
+                        old++;
+                    }
+                    if (old < slots.size() && slots.get(old).start + delta == pos) {
+                        to = old;
+                        break;
+                    }
+                }
+
+                int size = newTokens.size();
+                int next = lexer.next(equation, pos, newTokens);
+                if (newTokens.size() > size)
+                    newSlots.add(slot(newTokens.last(), pos, next, start, from));
+                pos = next;
+            }
+        } catch (ArithmeticException e) {
+            reset();
+            throw e;
+        }
+
+        for (int i = from; i < to; i++) {
+            Slot slot = slots.get(i);
+            if (!newSlots.contains(slot))
+                groups.remove(slot);
+            unregister(tokens.get(i));
+        }
+        for (TokenPair token : newTokens) {
+            register(token);
+        }
+        for (int i = to; i < slots.size(); i++) {
+            slots.get(i).start += delta;
+            slots.get(i).end += delta;
+        }
+        tokens.removeRange(from, to - from);
+        tokens.addAll(from, newTokens);
+        slots.removeRange(from, to - from);
+        slots.addAll(from, newSlots);
+
+        if (dirtyStart < 0) {
+            dirtyStart = start;
+            dirtyEnd = newEnd;
+        } else {
+            dirtyStart = Math.min(dirtyStart, start);
+            dirtyEnd = Math.max(dirtyEnd >= oldEnd ? dirtyEnd + delta : newEnd, newEnd);
+        }
+        this.equation = equation;
+    }
+
+    /**
+     * Keeps the old slot of a token that was lexed again before the damage without changing.
+     */
+    private Slot slot(TokenPair token, int start, int end, int damage, int from) {
+        if (end <= damage) {
+            for (int i = from; i < slots.size() && slots.get(i).start <= start; i++) {
+                Slot slot = slots.get(i);
+                if (slot.start == start && slot.end == end && tokens.get(i).equals(token))
+                    return slot;
+            }
+        }
+        return new Slot(start, end);
+    }
+
+    private void register(TokenPair token) {
+        if (token.is(TokenType.VAR))
+            vars++;
+        parenthesisDepth += Lexer.depth(token);
+    }
+
+    private void unregister(TokenPair token) {
+        if (token.is(TokenType.VAR))
+            vars--;
+        parenthesisDepth -= Lexer.depth(token);
+    }
+
+    private void reset() {
+        tokens.clear();
+        slots.clear();
+        groups.clear();
+        equation = null;
+        vars = 0;
+        parenthesisDepth = 0;
+        dirtyStart = dirtyEnd = -1;
+    }
+
+    /**
+     * Character range of a token in the current text, shifted in place by edits before it.
+     * Identity is what the parsed groups are keyed by.
+     */
+    private static final class Slot {
+        private int start;
+        private int end;
+
+        private Slot(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Group {
+        private final ActionTree tree;
+        private final Slot end;
+        private final int length;
+        private final boolean comparing;
+
+        private Group(ActionTree tree, Slot end, int length, boolean comparing) {
+            this.tree = tree;
+            this.end = end;
+            this.length = length;
+            this.comparing = comparing;
+        }
+    }
+
+    private class Parser extends PrecedenceParser {
+
+        private Parser() {
+            super(IncrementalEquation.this.tokens);
+        }
+
+        @Override
+        ActionTree group(TokenPair token) {
+            final int start = pos - 1;
+            Slot slot = slots.get(start);
+            Group group = groups.get(slot);
+            if (group != null && start + group.length < slots.size() && slots.get(start + group.length) == group.end
+                    && (dirtyStart < 0 || dirtyStart >= group.end.end || dirtyEnd <= slot.start)) {
+                if (group.comparing) {
+                    if (comparing)
+                        throw new ArithmeticException("Cannot have more than 1 comparison operator");
+                    comparing = true;
+                }
+                pos = start + group.length + 1;
+                return group.tree;
+            }
+
+            boolean before = comparing;
+            ActionTree tree = super.group(token);
+            groups.put(slot, new Group(tree, slots.get(pos - 1), pos - 1 - start, !before && comparing));
+            return tree;
+        }
+    }
+}
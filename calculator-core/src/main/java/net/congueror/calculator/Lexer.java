@@ -0,0 +1,227 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ExtendedList;
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+
+import java.util.Map;
+
+/**
+ * Table driven tokenizer. Every ASCII character is classified once through a 128 entry table
+ * and \command names are matched against a trie built from the registered expressions,
+ * so no strings are created while scanning, only when a token is emitted.
+ */
+class Lexer {
+    private static final byte INVALID = 0;
+    private static final byte DIGIT = 1;
+    private static final byte DOT = 2;
+    private static final byte SPACE = 3;
+    private static final byte BACKSLASH = 4;
+    private static final byte SYMBOL = 5;
+    private static final byte VAR = 6;
+
+    private static final String VAR_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ()|";
+
+    private final byte[] classes = new byte[128];
+    private final TokenPair[] symbols = new TokenPair[128];
+    private final Node commands = new Node();
+
+    Lexer(Map<String, Expression> expressions) {
+        for (char c = '0'; c <= '9'; c++) {
+            classes[c] = DIGIT;
+        }
+        for (int i = 0; i < VAR_CHARS.length(); i++) {
+            char c = VAR_CHARS.charAt(i);
+            classes[c] = VAR;
+            symbols[c] = TokenPair.of(TokenType.VAR, String.valueOf(c));
+        }
+        classes['.'] = DOT;
+        classes[' '] = SPACE;
+        classes['\\'] = BACKSLASH;
+
+        for (Map.Entry<String, Expression> entry : expressions.entrySet()) {
+            String key = entry.getKey();
+            TokenPair token = TokenPair.of(entry.getValue().type, key);
+            if (key.length() == 1 && key.charAt(0) < 128 && classes[key.charAt(0)] != DIGIT) {
+                classes[key.charAt(0)] = SYMBOL;
+                symbols[key.charAt(0)] = token;
+            } else if (key.length() > 1 && key.charAt(0) == '\\') {
+                commands.insert(key, token);
+            }
+        }
+    }
+
+    /**
+     * Appends the tokens of the equation to the list.
+     *
+     * @return true if the equation contains variables.
+     */
+    boolean tokenize(String equation, ExtendedList<TokenPair> tokens) {
+        int pos = 0;
+        int parenthesisDepth = 0;
+        boolean hasVars = false;
+        while (pos < equation.length()) {
+            int size = tokens.size();
+            pos = next(equation, pos, tokens);
+            if (tokens.size() == size)
+                continue;
+
+            TokenPair token = tokens.last();
+            hasVars |= token.is(TokenType.VAR);
+            parenthesisDepth += depth(token);
+            if (parenthesisDepth < 0)
+                throw new ArithmeticException("Found unexpected )");
+        }
+
+        if (parenthesisDepth != 0) {
+            throw new ArithmeticException("Expected ), but never found.");
+        }
+        return hasVars;
+    }
+
+    /**
+     * Scans at most one token starting at the given position, whitespace produces no token.
+     * The result only depends on the text from the position onwards.
+     *
+     * @return the position after the scanned characters.
+     */
+    int next(String equation, int pos, ExtendedList<TokenPair> tokens) {
+        final int length = equation.length();
+        char c = equation.charAt(pos);
+        byte type = classOf(c);
+
+        if (type == DOT && (pos + 1 >= length || classOf(equation.charAt(pos + 1)) != DIGIT))
+            type = INVALID;
+
+        switch (type) {
+            case SPACE -> {
+                return pos + 1;
+            }
+            case DIGIT, DOT -> {
+                return number(equation, pos, tokens);
+            }
+            case SYMBOL, VAR -> {
+                tokens.add(symbols[c]);
+                return pos + 1;
+            }
+            case BACKSLASH -> {
+                if (pos + 1 < length && equation.charAt(pos + 1) == ' ')
+                    return pos + 2;
+
+                Node match = null;
+                int end = pos;
+                Node node = commands;
+                for (int i = pos; i < length; i++) {
+                    char ch = equation.charAt(i);
+                    node = ch < 128 ? node.next[ch] : null;
+                    if (node == null)
+                        break;
+                    // A command spelled with letters only ends where the letters do, like in LaTeX.
+                    if (node.token != null && (!isLetter(ch) || i + 1 >= length || !isLetter(equation.charAt(i + 1)))) {
+                        match = node;
+                        end = i + 1;
+                    }
+                }
+
+                if (match == null)
+                    throw new ArithmeticException("Cannot recognize expression " + commandName(equation, pos));
+
+                tokens.add(match.token);
+                return end;
+            }
+            default -> throw new ArithmeticException("Invalid character, " + c);
+        }
+    }
+
+    /**
+     * How much the token changes the \left( \right) nesting depth.
+     */
+    static int depth(TokenPair token) {
+        String value = token.value();
+        if (value.isEmpty() || value.charAt(0) != '\\')
+            return 0;
+        int depth = 0;
+        for (int i = 1; i < value.length(); i++) {
+            if (value.charAt(i) == '(')
+                depth++;
+            else if (value.charAt(i) == ')')
+                depth--;
+        }
+        return depth;
+    }
+
+    /**
+     * Scans a decimal number with an optional leading dot and an optional E exponent.
+     * Lowercase e is left to the constant.
+     *
+     * @return the position after the number.
+     */
+    private int number(String equation, int start, ExtendedList<TokenPair> tokens) {
+        final int length = equation.length();
+        int pos = start;
+        boolean dot = false;
+        while (pos < length) {
+            byte type = classOf(equation.charAt(pos));
+            if (type == DOT) {
+                if (dot)
+                    throw new ArithmeticException("Invalid number, " + equation.substring(start, pos + 1));
+                dot = true;
+            } else if (type != DIGIT) {
+                break;
+            }
+            pos++;
+        }
+
+        if (pos + 1 < length && equation.charAt(pos) == 'E') {
+            int exponent = pos + 1;
+            if (equation.charAt(exponent) == '+' || equation.charAt(exponent) == '-')
+                exponent++;
+            if (exponent < length && classOf(equation.charAt(exponent)) == DIGIT) {
+                pos = exponent;
+                while (pos < length && classOf(equation.charAt(pos)) == DIGIT) {
+                    pos++;
+                }
+            }
+        }
+
+        tokens.add(TokenPair.of(TokenType.NUM, equation.substring(start, pos)));
+        return pos;
+    }
+
+    private byte classOf(char c) {
+        return c < 128 ? classes[c] : INVALID;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static String commandName(String equation, int start) {
+        int end = start + 1;
+        while (end < equation.length() && isLetter(equation.charAt(end))) {
+            end++;
+        }
+        String name = equation.substring(start, end);
+        if ((end == start + 1 || name.equals("\\left") || name.equals("\\right")) && end < equation.length())
+            end++;
+        return equation.substring(start, end);
+    }
+
+    private static final class Node {
+        private final Node[] next = new Node[128];
+        private TokenPair token;
+
+        private void insert(String key, TokenPair token) {
+            Node node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c >= 128)
+                    return;
+                if (node.next[c] == null)
+                    node.next[c] = new Node();
+                node = node.next[c];
+            }
+            node.token = token;
+        }
+    }
+}
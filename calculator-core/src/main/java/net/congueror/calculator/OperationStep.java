@@ -9,7 +9,7 @@ public class OperationStep {
     private final TokenPair prefix;
 
     public OperationStep(ActionTree step, String message) {
-        this(step, message, new TokenPair("", ""));
+        this(step, message, TokenPair.NONE);
     }
 
     public OperationStep(ActionTree step, String message, TokenPair prefix) {
@@ -0,0 +1,198 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.ExtendedList;
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+
+/**
+ * Single pass precedence climbing parser. Builds the same {@link ActionTree} shape as the legacy
+ * rescanning parser in {@link Equation} for every input the legacy parser handles, except where a - directly follows
+ * a comparison, +, \cdot or \div: the legacy parser takes that - for a sum with the operator before it and builds a
+ * broken tree, as for 1=-2 or 2\cdot -3, while this parser negates the operand after it.
+ * From lowest to highest binding: comparison, sum (with delegated -), product (with delegated \div and implicit
+ * multiplication), unary delegate operators, trigonometric functions and constructs, and finally atoms and encapsulations.
+ */
+class PrecedenceParser {
+
+    final ExtendedList<TokenPair> tokens;
+    int pos;
+    boolean comparing;
+
+    PrecedenceParser(ExtendedList<TokenPair> tokens) {
+        this.tokens = tokens;
+    }
+
+    public boolean isComparing() {
+        return comparing;
+    }
+
+    public void parse(ActionTree root) {
+        pos = 0;
+        sequence(root, null);
+        if (pos < tokens.size())
+            throw new ArithmeticException("Found unexpected " + tokens.get(pos).value());
+    }
+
+    /**
+     * Parses adjacent expressions that are not joined by any operator and inserts all of them into the parent,
+     * stopping at the given closing token.
+     */
+    private void sequence(ActionTree parent, TokenPair until) {
+        while (pos < tokens.size() && !tokens.get(pos).equals(until)) {
+            TokenPair token = tokens.get(pos);
+            if (token.is(TokenType.LOGIC)) {
+                parent.insert(new ActionTree(token));
+                pos++;
+            } else if (token.is(TokenType.COMPARISON)) {
+                pos++;
+            } else if (token.is(TokenType.ENC_OP) && !isLeft(token)) {
+                return;
+            } else {
+                parent.insert(comparison());
+            }
+        }
+    }
+
+    private ActionTree comparison() {
+        ActionTree left = sum();
+        if (pos < tokens.size() && tokens.get(pos).is(TokenType.COMPARISON)) {
+            TokenPair token = tokens.get(pos++);
+            if (comparing)
+                throw new ArithmeticException("Cannot have more than 1 comparison operator");
+            if (!startsOperand()) {
+                return left;
+            }
+            comparing = true;
+
+            ActionTree child = new ActionTree(token);
+            child.insert(left);
+            child.insert(sum());
+            return child;
+        }
+        return left;
+    }
+
+    private ActionTree sum() {
+        ActionTree first = product();
+        ActionTree child = null;
+        while (pos < tokens.size()) {
+            TokenPair token = tokens.get(pos);
+            if (token.equals(TokenType.OP, "+")) {
+                pos++;
+            } else if (!token.equals(TokenType.DEL_OP, "-")) {
+                break;
+            }
+
+            if (child == null) {
+                child = new ActionTree(TokenPair.SUM);
+                child.insert(first);
+            }
+            child.insert(product());
+        }
+        return child != null ? child : first;
+    }
+
+    private ActionTree product() {
+        ActionTree first = unary();
+        ActionTree child = null;
+        while (pos < tokens.size()) {
+            TokenPair token = tokens.get(pos);
+            if (token.equals(TokenType.OP, "\\cdot")) {
+                pos++;
+            } else if (!token.equals(TokenType.DEL_OP, "\\div") && !isImplicitProduct(tokens.get(pos - 1), token)) {
+                break;
+            }
+
+            if (child == null) {
+                child = new ActionTree(TokenPair.PRODUCT);
+                child.insert(first);
+            }
+            child.insert(unary());
+        }
+        return child != null ? child : first;
+    }
+
+    private ActionTree unary() {
+        TokenPair token = expect();
+        if (token.equals(TokenType.OP, "+")) {
+            pos++;
+            return unary();
+        } else if (token.is(TokenType.DEL_OP)) {
+            pos++;
+            ActionTree child = new ActionTree(token);
+            child.insert(unary());
+            return child;
+        } else if (token.is(TokenType.TRIG_FUN)) {
+            pos++;
+            ActionTree child = new ActionTree(token);
+            child.insert(unary());
+            return child;
+        } else if (token.is(TokenType.STRUCT)) {
+            pos++;
+            Expression.Construct struct = (Expression.Construct) Equation.EXPRESSIONS.get(token);
+            ActionTree child = new ActionTree(token);
+            for (int j = 0; j < struct.inputs(); j++) {
+                child.insert(atom());
+            }
+            return child;
+        }
+        return atom();
+    }
+
+    private ActionTree atom() {
+        TokenPair token = expect();
+        pos++;
+        if (token.is(TokenType.ENC_OP) && isLeft(token)) {
+            return group(token);
+        } else if (token.isOr(TokenType.NUM, TokenType.CONST, TokenType.VAR)) {
+            return new ActionTree(token);
+        }
+        throw new ArithmeticException("Found unexpected " + token.value());
+    }
+
+    /**
+     * Parses an encapsulation whose opening token has just been consumed, up to and including its counterpart.
+     * The result only depends on the tokens in between and on whether a comparison was already found.
+     */
+    ActionTree group(TokenPair token) {
+        TokenPair counterpart = ((Expression.EncapsulationOperator) Equation.EXPRESSIONS.get(token)).counterpart();
+        ActionTree child = new ActionTree(token);
+        sequence(child, counterpart);
+        if (pos >= tokens.size() || !tokens.get(pos).equals(counterpart))
+            throw new ArithmeticException("Expected " + counterpart.value() + ", but never found.");
+        pos++;
+        return child;
+    }
+
+    private TokenPair expect() {
+        if (pos >= tokens.size())
+            throw new ArithmeticException("Expected an expression after " + tokens.last().value());
+        return tokens.get(pos);
+    }
+
+    private boolean startsOperand() {
+        if (pos >= tokens.size())
+            return false;
+        TokenPair token = tokens.get(pos);
+        return token.isOr(TokenType.NUM, TokenType.CONST, TokenType.VAR, TokenType.DEL_OP, TokenType.TRIG_FUN, TokenType.STRUCT, TokenType.OP) || (token.is(TokenType.ENC_OP) && isLeft(token));
+    }
+
+    private static boolean isLeft(TokenPair token) {
+        return ((Expression.EncapsulationOperator) Equation.EXPRESSIONS.get(token)).isLeft();
+    }
+
+    /**
+     * Implicit multiplication between two adjacent tokens, the same rules the legacy parser applies to its token list.
+     * Encapsulations stand in for the nodes they produce.
+     */
+    private static boolean isImplicitProduct(TokenPair previous, TokenPair next) {
+        boolean prevClosing = previous.is(TokenType.ENC_OP) && !isLeft(previous);
+        boolean nextOpening = next.is(TokenType.ENC_OP) && isLeft(next);
+        if (next.isOr(TokenType.NUM, TokenType.CONST, TokenType.VAR) && (previous.isOr(TokenType.CONST, TokenType.VAR) || prevClosing))
+            return true;
+        if (previous.isOr(TokenType.NUM, TokenType.CONST, TokenType.VAR) && (next.isOr(TokenType.CONST, TokenType.TRIG_FUN, TokenType.STRUCT, TokenType.VAR) || nextOpening))
+            return true;
+        return prevClosing && next.is(TokenType.TRIG_FUN);
+    }
+}
@@ -0,0 +1,289 @@
+package net.congueror.calculator.helpers;
+
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.TokenPair;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * BigDecimal counterparts of the functions in {@link MathHelper}, used by the precise evaluation of an equation.
+ * Every function works with a few more digits than asked for and rounds its result to the requested precision.
+ */
+public final class BigMathHelper {
+    private static final int GUARD_DIGITS = 10;
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal FOUR = BigDecimal.valueOf(4);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+    private static final BigDecimal TWELVE = BigDecimal.valueOf(12);
+    /**
+     * Arguments of the arctangent series are halved below this, so the series needs few terms.
+     */
+    private static final BigDecimal SERIES_LIMIT = new BigDecimal("0.1");
+    private static volatile BigDecimal pi;
+    private static volatile BigDecimal e;
+
+    private BigMathHelper() {}
+
+    /**
+     * Computed with Machin's formula pi = 16 arctan(1/5) - 4 arctan(1/239), the most precise value is kept
+     * and rounded for any lower precision.
+     */
+    public static BigDecimal pi(MathContext mc) {
+        BigDecimal p = pi;
+        if (p == null || p.precision() < mc.getPrecision()) {
+            MathContext work = work(mc, 0);
+            p = pi = arctanOfInverse(5, work).multiply(BigDecimal.valueOf(16))
+                    .subtract(arctanOfInverse(239, work).multiply(BigDecimal.valueOf(4)), work);
+        }
+        return p.round(mc);
+    }
+
+    /**
+     * Computed as the sum of 1 / k!, the most precise value is kept and rounded for any lower precision.
+     */
+    public static BigDecimal e(MathContext mc) {
+        BigDecimal v = e;
+        if (v == null || v.precision() < mc.getPrecision()) {
+            MathContext work = work(mc, 0);
+            BigDecimal epsilon = BigDecimal.ONE.movePointLeft(work.getPrecision());
+            BigDecimal sum = BigDecimal.ONE;
+            BigDecimal term = BigDecimal.ONE;
+            for (int k = 1; term.compareTo(epsilon) > 0; k++) {
+                term = term.divide(BigDecimal.valueOf(k), work);
+                sum = sum.add(term, work);
+            }
+            v = e = sum;
+        }
+        return v.round(mc);
+    }
+
+    public static BigDecimal sin(BigDecimal a, MathContext mc) {
+        return sinOfQuadrant(a, 0, mc, mc);
+    }
+
+    public static BigDecimal cos(BigDecimal a, MathContext mc) {
+        return sinOfQuadrant(a, 1, mc, mc);
+    }
+
+    public static ActionTree tan(BigDecimal a, MathContext mc) {
+        MathContext work = work(mc, integerDigits(a));
+        return divide(sinOfQuadrant(a, 0, mc, work), sinOfQuadrant(a, 1, mc, work), mc);
+    }
+
+    public static ActionTree cot(BigDecimal a, MathContext mc) {
+        MathContext work = work(mc, integerDigits(a));
+        return divide(sinOfQuadrant(a, 1, mc, work), sinOfQuadrant(a, 0, mc, work), mc);
+    }
+
+    public static ActionTree csc(BigDecimal a, MathContext mc) {
+        return divide(BigDecimal.ONE, sinOfQuadrant(a, 0, mc, work(mc, 0)), mc);
+    }
+
+    public static ActionTree sec(BigDecimal a, MathContext mc) {
+        return divide(BigDecimal.ONE, sinOfQuadrant(a, 1, mc, work(mc, 0)), mc);
+    }
+
+    /**
+     * Divides like the doubles do by 0, which the special angles give exactly: an infinity with the sign of a, NaN for 0 / 0.
+     */
+    static ActionTree divide(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (b.signum() == 0)
+            return MathHelper.number(a.signum() / 0.0);
+        return number(a.divide(b, mc));
+    }
+
+    /**
+     * Sine of a plus quadrant times pi / 2. The argument is reduced to its remainder of pi / 2 with a value of pi
+     * that has as many more digits as the argument has before its point, the Taylor series of the sine or
+     * cosine of the remainder then converges quickly.
+     * Like in {@link MathHelper#sin(double)} a remainder within the last two digits of the precision of a multiple
+     * of pi / 12 is taken as that angle, as pi in the equation is rounded to the precision, and the sines 0, 1/2 and 1 are exact.
+     *
+     * @param result the context of the result, the precision of mc decides what counts as a special angle.
+     */
+    private static BigDecimal sinOfQuadrant(BigDecimal a, int quadrant, MathContext mc, MathContext result) {
+        MathContext work = work(result, integerDigits(a));
+        BigDecimal halfPi = pi(work).divide(TWO, work);
+        BigDecimal n = a.divide(halfPi, work).setScale(0, RoundingMode.HALF_EVEN);
+        BigDecimal r = a.subtract(halfPi.multiply(n), work);
+        int q = Math.floorMod(n.remainder(FOUR).intValue() + quadrant, 4);
+        boolean cosine = (q & 1) == 1;
+
+        BigDecimal twelfth = pi(work).divide(TWELVE, work);
+        int k = r.divide(twelfth, work).setScale(0, RoundingMode.HALF_EVEN).intValue();
+        BigDecimal special = twelfth.multiply(BigDecimal.valueOf(k), work);
+        if (r.subtract(special, work).abs().compareTo(BigDecimal.ONE.movePointLeft(mc.getPrecision() - 2)) < 0) {
+            BigDecimal exact = exactSine(cosine ? 6 - Math.abs(k) : Math.abs(k));
+            if (exact != null) {
+                exact = !cosine && k < 0 ? exact.negate() : exact;
+                return q < 2 ? exact : exact.negate();
+            }
+            r = special;
+        }
+
+        BigDecimal v = cosine ? series(BigDecimal.ONE, 0, r, work) : series(r, 1, r, work);
+        return q < 2 ? v.round(result) : v.negate().round(result);
+    }
+
+    /**
+     * @return the sine of k times pi / 12 if it is rational, otherwise null.
+     */
+    private static BigDecimal exactSine(int k) {
+        return switch (k) {
+            case 0 -> BigDecimal.ZERO;
+            case 2 -> HALF;
+            case 6 -> BigDecimal.ONE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Sums the alternating series first - first r^2 / ((k + 1)(k + 2)) + ..., which is the sine of r
+     * when it starts with r at k = 1 and the cosine when it starts with 1 at k = 0.
+     */
+    private static BigDecimal series(BigDecimal first, int k, BigDecimal r, MathContext work) {
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(work.getPrecision());
+        BigDecimal square = r.multiply(r, work);
+        BigDecimal sum = first;
+        BigDecimal term = first;
+        while (term.abs().compareTo(epsilon) > 0) {
+            term = term.multiply(square, work).divide(BigDecimal.valueOf((long) (k + 1) * (k + 2)), work).negate();
+            sum = sum.add(term, work);
+            k += 2;
+        }
+        return sum;
+    }
+
+    static BigDecimal atan(BigDecimal a, MathContext mc) {
+        MathContext work = work(mc, 0);
+        if (a.abs().compareTo(BigDecimal.ONE) > 0) {
+            BigDecimal halfPi = pi(work).divide(TWO, work);
+            BigDecimal result = halfPi.subtract(atan(BigDecimal.ONE.divide(a.abs(), work), work), work);
+            return (a.signum() < 0 ? result.negate() : result).round(mc);
+        }
+
+        int halvings = 0;
+        while (a.abs().compareTo(SERIES_LIMIT) > 0) {
+            a = a.divide(BigDecimal.ONE.add(BigDecimal.ONE.add(a.multiply(a, work)).sqrt(work)), work);
+            halvings++;
+        }
+
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(work.getPrecision());
+        BigDecimal square = a.multiply(a, work);
+        BigDecimal power = a;
+        BigDecimal sum = a;
+        for (int k = 3; power.abs().compareTo(epsilon) > 0; k += 2) {
+            power = power.multiply(square, work).negate();
+            sum = sum.add(power.divide(BigDecimal.valueOf(k), work), work);
+        }
+        return sum.multiply(TWO.pow(halvings), mc);
+    }
+
+    /**
+     * @return null when the number is outside [-1, 1].
+     */
+    static BigDecimal asin(BigDecimal a, MathContext mc) {
+        int side = a.abs().compareTo(BigDecimal.ONE);
+        if (side > 0)
+            return null;
+        MathContext work = work(mc, 0);
+        if (side == 0)
+            return a.signum() < 0 ? pi(work).divide(TWO, mc).negate() : pi(work).divide(TWO, mc);
+        BigDecimal cos = BigDecimal.ONE.subtract(a.multiply(a, work), work).sqrt(work);
+        return atan(a.divide(cos, work), mc);
+    }
+
+    /**
+     * @return null when the number is outside [-1, 1].
+     */
+    static BigDecimal acos(BigDecimal a, MathContext mc) {
+        MathContext work = work(mc, 0);
+        BigDecimal asin = asin(a, work);
+        if (asin == null)
+            return null;
+        return pi(work).divide(TWO, work).subtract(asin, mc);
+    }
+
+    /**
+     * arctan(1 / n) from its Taylor series, 1/n - 1/(3n^3) + 1/(5n^5) - ...
+     */
+    private static BigDecimal arctanOfInverse(int n, MathContext work) {
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(work.getPrecision() + 1);
+        BigDecimal square = BigDecimal.valueOf((long) n * n);
+        BigDecimal power = BigDecimal.ONE.divide(BigDecimal.valueOf(n), work);
+        BigDecimal sum = power;
+        for (int k = 3; power.compareTo(epsilon) > 0; k += 2) {
+            power = power.divide(square, work);
+            BigDecimal term = power.divide(BigDecimal.valueOf(k), work);
+            sum = (k & 2) == 0 ? sum.add(term, work) : sum.subtract(term, work);
+        }
+        return sum;
+    }
+
+    /**
+     * Like {@link MathHelper#arcsin(double)}, but only the exact sines 0, 1/2 and 1 give a special angle,
+     * the sine of every other special angle is irrational.
+     */
+    public static ActionTree arcsin(BigDecimal a, MathContext mc) {
+        int k = sixths(a);
+        if (k != MathHelper.NOT_SPECIAL)
+            return MathHelper.angle(k * 2);
+        return number(asin(a, mc));
+    }
+
+    public static ActionTree arccos(BigDecimal a, MathContext mc) {
+        int k = sixths(a);
+        if (k != MathHelper.NOT_SPECIAL)
+            return MathHelper.angle(6 - k * 2);
+        return number(acos(a, mc));
+    }
+
+    public static ActionTree arctan(BigDecimal a, MathContext mc) {
+        if (a.signum() == 0)
+            return MathHelper.angle(0);
+        if (a.abs().compareTo(BigDecimal.ONE) == 0)
+            return MathHelper.angle(a.signum() * 3);
+        return number(atan(a, mc));
+    }
+
+    /**
+     * @return k for a sine of k times pi / 6 that is exactly 0, 1/2 or 1 with their signs, otherwise {@link MathHelper#NOT_SPECIAL}.
+     */
+    private static int sixths(BigDecimal a) {
+        BigDecimal abs = a.abs();
+        if (abs.signum() == 0)
+            return 0;
+        if (abs.compareTo(HALF) == 0)
+            return a.signum();
+        if (abs.compareTo(BigDecimal.ONE) == 0)
+            return a.signum() * 3;
+        return MathHelper.NOT_SPECIAL;
+    }
+
+    /**
+     * @return the number as a tree like {@link MathHelper#number(double)}, NaN for null.
+     */
+    public static ActionTree number(BigDecimal a) {
+        if (a == null)
+            return MathHelper.number(Double.NaN);
+        if (a.signum() < 0) {
+            ActionTree negative = new ActionTree(TokenPair.NEGATIVE);
+            negative.insert(new ActionTree(TokenPair.of(a.negate())));
+            return negative;
+        }
+        return new ActionTree(TokenPair.of(a));
+    }
+
+    private static int integerDigits(BigDecimal a) {
+        return Math.max(a.precision() - a.scale(), 0);
+    }
+
+    /**
+     * @return the precision of the context with guard digits and extra digits added.
+     */
+    private static MathContext work(MathContext mc, int extra) {
+        return new MathContext(mc.getPrecision() + extra + GUARD_DIGITS, mc.getRoundingMode());
+    }
+}
@@ -0,0 +1,96 @@
+package net.congueror.calculator.helpers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formats doubles without DecimalFormat, keeps no state so it can be called from any thread.
+ */
+public final class FormatHelper {
+    private static final int MAX_DECIMALS = 8;
+    private static final long[] POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+    /**
+     * Below this a number scaled by its decimals is far enough from its neighbouring doubles that rounding
+     * its exact value gives the same digits as rounding the shortest digits of {@link Double#toString(double)}.
+     */
+    private static final double EXACT_LIMIT = 0x1p51;
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private FormatHelper() {}
+
+    /**
+     * Appends the number rounded half even to at most the given decimals, without trailing zeros and without grouping.
+     * The text is the one {@code new DecimalFormat("#.##")} writes for 2 decimals in an English locale, negative numbers
+     * that round to 0 keep their sign and infinity is written as the infinity sign.
+     *
+     * @param decimals from 0 to 8.
+     */
+    public static void appendRounded(StringBuilder out, double value, int decimals) {
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+            return;
+        }
+        if (Double.doubleToRawLongBits(value) < 0)
+            out.append('-');
+        double abs = Math.abs(value);
+        if (Double.isInfinite(abs)) {
+            out.append('\u221E');
+            return;
+        }
+
+        long power = POWERS_OF_TEN[decimals];
+        if (abs * power >= EXACT_LIMIT) {
+            appendRoundedDigits(out, abs, decimals);
+            return;
+        }
+
+        // the floor and the tie are decided on the exact product, the fused multiply add does not round it first
+        double floor = Math.floor(abs * power);
+        if (Math.fma(abs, power, -floor) < 0)
+            floor--;
+        double half = Math.fma(abs, power, -(floor + 0.5));
+        long scaled = (long) floor;
+        if (half > 0 || half == 0 && (scaled & 1) == 1)
+            scaled++;
+
+        out.append(scaled / power);
+        long fraction = scaled % power;
+        if (fraction != 0) {
+            int digits = decimals;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            out.append('.');
+            for (long p = POWERS_OF_TEN[digits - 1]; p > fraction; p /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+    }
+
+    /**
+     * Rounds the shortest digits of large numbers, like DecimalFormat does. A tie in those digits is decided
+     * by the exact value of the double, and only an exact tie is rounded to even.
+     */
+    private static void appendRoundedDigits(StringBuilder out, double abs, int decimals) {
+        BigDecimal digits = new BigDecimal(Double.toString(abs));
+        if (digits.scale() > decimals) {
+            BigDecimal down = digits.setScale(decimals, RoundingMode.DOWN);
+            RoundingMode mode = RoundingMode.HALF_EVEN;
+            if (digits.subtract(down).movePointRight(decimals).compareTo(new BigDecimal("0.5")) == 0) {
+                int exact = new BigDecimal(abs).compareTo(digits);
+                mode = exact > 0 ? RoundingMode.UP : exact < 0 ? RoundingMode.DOWN : RoundingMode.HALF_EVEN;
+            }
+            digits = digits.setScale(decimals, mode);
+        }
+        out.append(digits.signum() == 0 ? "0" : digits.stripTrailingZeros().toPlainString());
+    }
+}
@@ -0,0 +1,256 @@
+package net.congueror.calculator.helpers;
+
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.TokenPair;
+import net.congueror.calculator.structure.TokenType;
+
+import javax.annotation.Nullable;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+public final class MathHelper {
+    private static final double epsilon = 1e-14;
+    private static final double SPECIAL_ANGLE = Math.PI / 12;
+    static final int NOT_SPECIAL = Integer.MIN_VALUE;
+    /**
+     * pi / 2 split in three parts of 33 bits and the rest, a multiple of a 33 bit part by at most 2^20 has no rounding error.
+     * The rest keeps the remainder of an argument close to a multiple of pi / 2 precise.
+     */
+    private static final double PI_2_1 = 1.57079632673412561417e+00;
+    private static final double PI_2_2 = 6.07710050630396597660e-11;
+    private static final double PI_2_3 = 2.02226624871116645580e-21;
+    private static final double PI_2_3T = 8.47842766036889956997e-32;
+    /**
+     * Below this the rounding error of a product can be lost to underflow, where a fused multiply add no longer sees it.
+     */
+    private static final double EXACT_PRODUCT_LIMIT = 0x1p-969;
+    private static final double CODY_WAITE_LIMIT = 0x1p19 * Math.PI;
+    /**
+     * The first 1216 bits of 2 / pi, enough for the remainder of the largest doubles to keep its precision.
+     */
+    private static final int TWO_OVER_PI_BITS = 1216;
+    /**
+     * Bits of 2 / pi kept below the quadrant. A double is never closer than 2^-62 quadrants to a multiple of pi / 2,
+     * so the remainder keeps more than 64 correct bits with the 53 bit mantissa multiplied by these.
+     */
+    private static final int REDUCTION_BITS = 192;
+    private static final BigInteger TWO_OVER_PI = new BigInteger(
+            "a2f9836e4e441529fc2757d1f534ddc0db6295993c439041fe5163abdebbc561b7246e3a424dd2e006492eea09d1921c" +
+            "fe1deb1cb129a73ee88235f52ebb4484e99c7026b45f7e413991d639835339f49c845f8bbdf9283b1ff897ffde05980f" +
+            "ef2f118b5a0a6d1f6d367ecf27cb09b74f463f669e5fea2d7527bac7ebe5f17b3d0739f78a5292ea6bfb5fb11f8d5d08" +
+            "56033046fc7b6bab", 16);
+    /**
+     * Sine of k times pi / 12 for k from 0 to 6, rounded to the closest double.
+     */
+    private static final double[] SINES = {0, 0.25881904510252074, 0.5, 0.7071067811865476, 0.8660254037844386, 0.9659258262890683, 1};
+    private static final double[] TANGENTS = new double[6];
+    private static final ActionTree[] ANGLES = new ActionTree[13];
+
+    static {
+        for (int k = 0; k < TANGENTS.length; k++) {
+            TANGENTS[k] = SINES[k] / SINES[6 - k];
+        }
+        for (int k = 0; k < ANGLES.length; k++) {
+            ANGLES[k] = buildAngle(k);
+        }
+    }
+
+    private MathHelper() {}
+
+    public static boolean equals(double a, double b) {
+        return Math.abs(a - b) < epsilon;
+    }
+
+    /**
+     * Whether the sum of a and b rounded to sum without error, the error is computed with the two sum algorithm.
+     */
+    public static boolean isExactSum(double a, double b, double sum) {
+        double bPart = sum - a;
+        double aPart = sum - bPart;
+        return (a - aPart) + (b - bPart) == 0;
+    }
+
+    /**
+     * Whether the product of a and b rounded to product without error.
+     */
+    public static boolean isExactProduct(double a, double b, double product) {
+        if (product == 0)
+            return a == 0 || b == 0;
+        return Math.abs(product) >= EXACT_PRODUCT_LIMIT && Math.fma(a, b, -product) == 0;
+    }
+
+    public static double sin(double a) {
+        return sinOfQuadrant(a, 0);
+    }
+
+    public static double cos(double a) {
+        return sinOfQuadrant(a, 1);
+    }
+
+    /**
+     * Sine of a plus quadrant times pi / 2. The argument is reduced to a multiple of pi / 2 and a remainder of
+     * at most pi / 4, by Cody-Waite for moderate arguments and by Payne-Hanek for large ones.
+     */
+    private static double sinOfQuadrant(double a, int quadrant) {
+        if (Double.isNaN(a) || Double.isInfinite(a))
+            return Double.NaN;
+        if (Math.abs(a) >= CODY_WAITE_LIMIT)
+            return payneHanek(a, quadrant);
+
+        // n times each 33 bit part of pi / 2 is exact since n has at most 20 bits
+        double n = Math.rint(a * (2 / Math.PI));
+        double r = a - n * PI_2_1 - n * PI_2_2 - n * PI_2_3 - n * PI_2_3T;
+        return sinOfRemainder(r, (int) n + quadrant);
+    }
+
+    /**
+     * Only the bits of 2 / pi that can reach the remainder are multiplied, so the cost does not grow with the argument.
+     * Higher bits only add multiples of 4 quadrants, lower bits are below the precision of the remainder.
+     */
+    private static double payneHanek(double a, int quadrant) {
+        int exponent = Math.getExponent(a) - 52;
+        long mantissa = (long) Math.scalb(Math.abs(a), -exponent);
+        int low = Math.max(TWO_OVER_PI_BITS - exponent - REDUCTION_BITS, 0);
+        int shift = TWO_OVER_PI_BITS - exponent - low;
+
+        BigInteger bits = TWO_OVER_PI.shiftRight(low);
+        if (bits.bitLength() > shift + 2)
+            bits = bits.subtract(bits.shiftRight(shift + 2).shiftLeft(shift + 2));
+
+        // |a| * 2 / pi modulo 4 in units of 2^-shift, split in the closest multiple n and the remainder
+        BigInteger product = bits.multiply(BigInteger.valueOf(mantissa));
+        BigInteger rounded = product.add(BigInteger.ONE.shiftLeft(shift - 1)).shiftRight(shift);
+        int n = rounded.intValue() & 3;
+        BigInteger remainder = product.subtract(rounded.shiftLeft(shift));
+
+        int excess = Math.max(remainder.bitLength() - 64, 0);
+        double r = Math.scalb(remainder.shiftRight(excess).doubleValue(), excess - shift) * (Math.PI / 2);
+        return a < 0 ? sinOfRemainder(-r, quadrant - n) : sinOfRemainder(r, quadrant + n);
+    }
+
+    /**
+     * Sine of r plus quadrant times pi / 2, a remainder on a multiple of pi / 12 gives the exact value of the special angle.
+     */
+    private static double sinOfRemainder(double r, int quadrant) {
+        int q = quadrant & 3;
+        boolean cosine = (q & 1) == 1;
+
+        double v;
+        int k = specialAngle(r);
+        if (k != NOT_SPECIAL) {
+            v = cosine ? SINES[6 - Math.abs(k)] : (k < 0 ? -SINES[-k] : SINES[k]);
+            if (v == 0)
+                return 0d;
+        } else {
+            v = cosine ? Math.cos(r) : Math.sin(r);
+        }
+        return q < 2 ? v : -v;
+    }
+
+    public static double tan(double a) {
+        return sin(a) / cos(a);
+    }
+
+    public static ActionTree arcsin(double a) {
+        for (int k = 0; k <= 6; k++) {
+            if (equals(Math.abs(a), SINES[k]))
+                return angle(a < 0 ? -k : k);
+        }
+        return number(Math.asin(a));
+    }
+
+    public static ActionTree arccos(double a) {
+        for (int k = 0; k <= 12; k++) {
+            if (equals(a, k <= 6 ? SINES[6 - k] : -SINES[k - 6]))
+                return angle(k);
+        }
+        return number(Math.acos(a));
+    }
+
+    public static ActionTree arctan(double a) {
+        if (Double.isInfinite(a))
+            return angle(a < 0 ? -6 : 6);
+        for (int k = 0; k < 6; k++) {
+            if (equals(Math.abs(a), TANGENTS[k]))
+                return angle(a < 0 ? -k : k);
+        }
+        return number(Math.atan(a));
+    }
+
+    /**
+     * @return the number as a tree, shaped like the one parsed from its text, a negative number is a minus over its absolute value.
+     */
+    public static ActionTree number(double a) {
+        if (Double.compare(a, 0.0) < 0) {
+            ActionTree negative = new ActionTree(TokenPair.NEGATIVE);
+            negative.insert(new ActionTree(new TokenPair(-a)));
+            return negative;
+        }
+        return new ActionTree(new TokenPair(a));
+    }
+
+    /**
+     * @return the multiple k of pi / 12 the angle lies on, or {@link #NOT_SPECIAL} when it lies on none.
+     */
+    private static int specialAngle(double a) {
+        double k = Math.rint(a / SPECIAL_ANGLE);
+        if (Math.abs(a - k * SPECIAL_ANGLE) < epsilon)
+            return (int) k;
+        return NOT_SPECIAL;
+    }
+
+    /**
+     * @return k times pi / 12 as an exact tree, copied from the prebuilt ones since the simplification rewrites nodes in place.
+     */
+    static ActionTree angle(int k) {
+        if (k >= 0)
+            return ANGLES[k]._clone();
+        ActionTree negative = new ActionTree(TokenPair.NEGATIVE);
+        negative.insert(ANGLES[-k]._clone());
+        return negative;
+    }
+
+    private static ActionTree buildAngle(int k) {
+        if (k == 0)
+            return new ActionTree(TokenPair.of(TokenType.NUM, "0"));
+
+        int gcd = (int) Rational.gcd(k, 12);
+        ActionTree pi = new ActionTree(TokenPair.of(TokenType.CONST, "\\pi"));
+        if (k == 12)
+            return pi;
+
+        ActionTree numerator = pi;
+        if (k / gcd != 1) {
+            numerator = new ActionTree(TokenPair.PRODUCT);
+            numerator.insert(new ActionTree(TokenPair.of(TokenType.NUM, String.valueOf(k / gcd))));
+            numerator.insert(pi);
+        }
+        ActionTree fraction = new ActionTree(TokenPair.FRACTION);
+        fraction.insert(braces(numerator));
+        fraction.insert(braces(new ActionTree(TokenPair.of(TokenType.NUM, String.valueOf(12 / gcd)))));
+        return fraction;
+    }
+
+    private static ActionTree braces(ActionTree node) {
+        ActionTree braces = new ActionTree(TokenPair.BRACES);
+        braces.insert(node);
+        return braces;
+    }
+
+    /**
+     * With a precision the quotient stays a double only if it is exact, that is if it times b is exactly a,
+     * otherwise it is divided as BigDecimals. Dividing by 0 is always left to the doubles.
+     */
+    public static ActionTree fraction(ActionTree a, ActionTree b, @Nullable MathContext precision) {
+        if (a.value().is(TokenType.NUM) && b.value().is(TokenType.NUM)) {
+            TokenPair x = a.value();
+            TokenPair y = b.value();
+            double val = x.getAsNum() / y.getAsNum();
+            if (precision == null || !x.isFinite() || !y.isFinite() || y.getAsNum() == 0 && !y.isBig()
+                    || !x.isBig() && !y.isBig() && Double.isFinite(val) && isExactProduct(val, y.getAsNum(), x.getAsNum()))
+                return new ActionTree(new TokenPair(val));
+            return new ActionTree(TokenPair.of(x.getAsBig().divide(y.getAsBig(), precision)));
+        }
+        return null;
+    }
+}
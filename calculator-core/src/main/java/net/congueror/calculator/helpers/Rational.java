@@ -0,0 +1,185 @@
+package net.congueror.calculator.helpers;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Exact fraction of two integers, always reduced and with a positive denominator, what numbers are divided by when
+ * a fraction is simplified by their GCD. Both parts are kept in longs while they fit and promoted to BigInteger once
+ * a result would overflow.
+ */
+public final class Rational {
+    /**
+     * Returned by {@link #unscaled(double, int)} for a number that cannot be scaled exactly.
+     */
+    public static final long INEXACT = Long.MIN_VALUE;
+    public static final int MAX_DECIMALS = 14;
+    private static final double[] POWERS_OF_TEN = new double[MAX_DECIMALS + 1];
+    private static final long[] LONG_POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            LONG_POWERS_OF_TEN[i] = power;
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private final long num;
+    private final long den;
+    private final BigInteger bigNum;
+    private final BigInteger bigDen;
+
+    private Rational(long num, long den, BigInteger bigNum, BigInteger bigDen) {
+        this.num = num;
+        this.den = den;
+        this.bigNum = bigNum;
+        this.bigDen = bigDen;
+    }
+
+    /**
+     * @throws ArithmeticException if the denominator is 0.
+     */
+    private static Rational of(long num, long den) {
+        if (den == 0)
+            throw new ArithmeticException("Division by zero");
+        if (num == Long.MIN_VALUE || den == Long.MIN_VALUE)
+            return of(BigInteger.valueOf(num), BigInteger.valueOf(den));
+
+        long gcd = gcd(Math.abs(num), Math.abs(den));
+        num /= gcd;
+        den /= gcd;
+        if (den < 0) {
+            num = -num;
+            den = -den;
+        }
+        return new Rational(num, den, null, null);
+    }
+
+    /**
+     * @throws ArithmeticException if the denominator is 0.
+     */
+    private static Rational of(BigInteger num, BigInteger den) {
+        if (den.signum() == 0)
+            throw new ArithmeticException("Division by zero");
+
+        BigInteger gcd = num.gcd(den);
+        num = num.divide(gcd);
+        den = den.divide(gcd);
+        if (den.signum() < 0) {
+            num = num.negate();
+            den = den.negate();
+        }
+        if (num.bitLength() < Long.SIZE && den.bitLength() < Long.SIZE)
+            return new Rational(num.longValue(), den.longValue(), null, null);
+        return new Rational(0, 0, num, den);
+    }
+
+    /**
+     * @return the exact value of a number written with at most 14 decimals, null for any other number.
+     */
+    @Nullable
+    public static Rational valueOf(double value) {
+        int decimals = decimals(value);
+        if (decimals >= 0)
+            return of(unscaled(value, decimals), LONG_POWERS_OF_TEN[decimals]);
+        if (value == Math.rint(value) && !Double.isInfinite(value))
+            return of(new BigDecimal(value).toBigIntegerExact(), BigInteger.ONE);
+        return null;
+    }
+
+    /**
+     * @return the least amount of decimals the number can be written with, -1 if it needs more than 14
+     * or its digits do not fit in a long.
+     */
+    public static int decimals(double value) {
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            if (unscaled(value, i) != INEXACT)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number times 10^decimals, or {@link #INEXACT} when that is not a whole number that fits in a long.
+     */
+    public static long unscaled(double value, int decimals) {
+        double scaled = Math.rint(value * POWERS_OF_TEN[decimals]);
+        if (decimals == 0 ? scaled == value && Math.abs(scaled) < 0x1p63 : Math.abs(scaled) < 0x1p51 && scaled / POWERS_OF_TEN[decimals] == value)
+            return (long) scaled;
+        return INEXACT;
+    }
+
+    private boolean isBig() {
+        return bigNum != null;
+    }
+
+    /**
+     * @throws ArithmeticException if the other rational is 0.
+     */
+    public Rational divide(Rational other) {
+        if (other.signum() == 0)
+            throw new ArithmeticException("Division by zero");
+        if (!isBig() && !other.isBig() && fits(num, other.den) && fits(den, other.num))
+            return of(num * other.den, den * other.num);
+        return of(numerator().multiply(other.denominator()), denominator().multiply(other.numerator()));
+    }
+
+    /**
+     * @return whether the product of the two longs fits in a long.
+     */
+    private static boolean fits(long a, long b) {
+        return Math.multiplyHigh(a, b) == (a * b) >> 63;
+    }
+
+    private int signum() {
+        return isBig() ? bigNum.signum() : Long.signum(num);
+    }
+
+    private BigInteger numerator() {
+        return isBig() ? bigNum : BigInteger.valueOf(num);
+    }
+
+    private BigInteger denominator() {
+        return isBig() ? bigDen : BigInteger.valueOf(den);
+    }
+
+    /**
+     * @return the numerator rounded to the closest double.
+     */
+    public double numeratorValue() {
+        return isBig() ? bigNum.doubleValue() : num;
+    }
+
+    /**
+     * @return the denominator rounded to the closest double.
+     */
+    public double denominatorValue() {
+        return isBig() ? bigDen.doubleValue() : den;
+    }
+
+    /**
+     * Binary GCD of two numbers that are not negative, the GCD with 0 is the other number.
+     */
+    public static long gcd(long a, long b) {
+        if (a == 0)
+            return b;
+        if (b == 0)
+            return a;
+
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long temp = a;
+                a = b;
+                b = temp;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
+    }
+}
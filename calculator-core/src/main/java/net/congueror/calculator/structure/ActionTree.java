@@ -0,0 +1,1343 @@
+package net.congueror.calculator.structure;
+
+import com.google.common.collect.HashMultiset;
+import net.congueror.calculator.Equation;
+import net.congueror.calculator.Expression;
+import net.congueror.calculator.OperationStep;
+import net.congueror.calculator.helpers.FormatHelper;
+import net.congueror.calculator.helpers.GuavaHelper;
+import net.congueror.calculator.helpers.Rational;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class ActionTree implements Cloneable {
+    private static final int DECIMALS = 2;
+    private static final double precision = 1e14;
+    private static final int IDENTITIES = 0;
+    private static final int DIVISIONS = 1;
+    private static final int FRACTIONS = 2;
+    private static final int NUM_OPERATORS = 3;
+    private static final int NON_NUM_OPERATORS = 4;
+    private static final int TRIGONOMETRY = 5;
+    private static final int CONSTRUCTS = 6;
+    private static final int CONSTANTS = 7;
+    private static final int CONST = feature(TokenType.CONST);
+    private static final int OP = feature(TokenType.OP);
+    private static final int DEL_OP = feature(TokenType.DEL_OP);
+    private static final int TRIG_FUN = feature(TokenType.TRIG_FUN);
+    private static final int STRUCT = feature(TokenType.STRUCT);
+    /**
+     * Token types that must all be present beneath a node for a pass to possibly change it, indexed by pass.
+     */
+    private static final int[] PASS_FEATURES = {OP, OP | DEL_OP, STRUCT, OP, OP, TRIG_FUN, STRUCT, CONST};
+    private int depth;
+    private TokenPair encOperator = null;
+    private TokenPair value;
+    private ExtendedList<ActionTree> children = new ExtendedList<>();
+    private boolean formatNum = true;
+    private boolean frozen;
+    private Generation generation;
+    private ActionTree snapshot;
+    private long snapshotGeneration = -1;
+    private byte clean;
+    private int hash;
+    private long hashGeneration = -1;
+    private int features;
+    private long featuresGeneration = -1;
+    private String latex;
+
+    public ActionTree(TokenPair value) {
+        this.value = value;
+    }
+
+    public TokenPair value() {
+        return value;
+    }
+
+    public ActionTree getChild() {
+        return children.get(0);
+    }
+
+    public boolean findAny(TokenType typeQuery) {
+        return (features() & feature(typeQuery)) != 0;
+    }
+
+    /**
+     * Bitmask of the token types in this subtree. Cached like the hash, forever on frozen nodes
+     * and until the next rewrite of their tree on live ones, which read it from their snapshot while that is current.
+     */
+    private int features() {
+        if (frozen) {
+            int f = features;
+            if (f == 0)
+                f = features = computeFeatures();
+            return f;
+        }
+        long generation = generation().count;
+        if (snapshot != null && snapshotGeneration == generation)
+            return snapshot.features();
+
+        if (featuresGeneration != generation) {
+            features = computeFeatures();
+            featuresGeneration = generation;
+        }
+        return features;
+    }
+
+    private int computeFeatures() {
+        int features = feature(value.type());
+        for (ActionTree child : children) {
+            features |= child.features();
+        }
+        return features;
+    }
+
+    private static int feature(TokenType type) {
+        return 1 << type.ordinal();
+    }
+
+    /**
+     * @return the amount of nodes in this subtree, including this one.
+     */
+    public int size() {
+        int size = 1;
+        for (ActionTree child : children) {
+            size += child.size();
+        }
+        return size;
+    }
+
+    public void insert(ActionTree node) {
+        if (node == this) return;
+        children.add(node);
+        if (!node.frozen) {
+            node.depth = depth + 1;
+            adopt(node);
+        }
+        modified();
+    }
+
+    public void insert(int index, ActionTree node) {
+        if (node == this) return;
+        children.add(index, node);
+        if (!node.frozen) {
+            node.depth = depth + 1;
+            adopt(node);
+        }
+        modified();
+    }
+
+    public void insert(List<ActionTree> nodes) {
+        for (ActionTree node : nodes) {
+            insert(node);
+        }
+    }
+
+    public void print() {
+        print(0);
+    }
+
+    private void print(int height) {
+        System.out.println(value.toString());
+        ++height;
+        for (ActionTree child : children) {
+            System.out.print("  ".repeat(Math.max(0, height)));
+            child.print(height);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ActionTree that = (ActionTree) o;
+        if (children.isEmpty() && that.children.isEmpty())
+            return value.equals(that.value);
+        return hashCode() == that.hashCode() && value().equals(that.value()) && children.equals(that.children);
+    }
+
+    /**
+     * Same value as {@code Objects.hash(value, children)}, cached per node. Frozen nodes keep it forever in the single field
+     * like {@link TokenPair#hashCode()}, so they can be shared by threads, live nodes only until the next in place rewrite
+     * of their tree, see {@link #modified()}.
+     */
+    @Override
+    public int hashCode() {
+        if (frozen) {
+            int h = hash;
+            if (h == 0)
+                h = hash = computeHash();
+            return h;
+        }
+        long generation = generation().count;
+        if (hashGeneration != generation) {
+            hash = computeHash();
+            hashGeneration = generation;
+        }
+        return hash;
+    }
+
+    private int computeHash() {
+        int childrenHash = 1;
+        for (ActionTree child : children) {
+            childrenHash = 31 * childrenHash + child.hashCode();
+        }
+        return 31 * (31 + value.hashCode()) + childrenHash;
+    }
+
+    /**
+     * Must follow every change to the value or the children of a live node, it invalidates the cached hashes of its tree.
+     */
+    private void modified() {
+        generation().count++;
+    }
+
+    /**
+     * @return the generation of the tree this live node belongs to, the one all the joined ones lead to.
+     */
+    private Generation generation() {
+        Generation generation = this.generation;
+        if (generation != null && generation.joined == null)
+            return generation;
+        return this.generation = generation == null ? new Generation() : generation.last();
+    }
+
+    /**
+     * Makes the live node share the generation of this tree, must follow every link of a node that did not go through
+     * {@link #insert}. Nothing cached on either side before outlives the join.
+     */
+    private void adopt(ActionTree node) {
+        if (node.frozen)
+            return;
+        Generation mine = generation();
+        if (node.generation == null) {
+            node.generation = mine;
+            return;
+        }
+        Generation theirs = node.generation();
+        if (theirs != mine) {
+            theirs.joined = mine;
+            mine.count = Math.max(mine.count, theirs.count) + 1;
+        }
+    }
+
+    /**
+     * Runs a simplification pass on the children in order until one of them changes.
+     * A child is skipped if it lacks the token types the pass rewrites, or while its tree did not change since its last snapshot
+     * and that snapshot is known to be clean for the pass, so after a rewrite only the rewritten subtrees and their ancestors are examined again.
+     */
+    private boolean anyChild(int pass, Predicate<ActionTree> action) {
+        final int required = PASS_FEATURES[pass];
+        long generation = generation().count;
+        for (ActionTree child : children) {
+            if ((child.features() & required) != required)
+                continue;
+            boolean current = child.snapshot != null && child.snapshotGeneration == generation;
+            if (current && (child.snapshot.clean & 1 << pass) != 0)
+                continue;
+            if (action.test(child))
+                return true;
+            // the pass may rewrite a subtree it leaves as it was, like the argument of a function it cannot evaluate
+            generation = generation().count;
+            if (current && child.snapshotGeneration == generation)
+                child.snapshot.clean |= 1 << pass;
+        }
+        return false;
+    }
+
+    /**
+     * Takes a new snapshot if anything changed since the last one, so the clean marks of the passes can be trusted.
+     */
+    private void refreshSnapshot() {
+        if (snapshot == null || snapshotGeneration != generation().count)
+            snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return (!children.isEmpty() ? "{" + value + ": " + children + "}" : value.toString());
+    }
+
+    public ActionTree _clone() {
+        try {
+            return (ActionTree) this.clone();
+        } catch (CloneNotSupportedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a frozen copy of this tree for recording a step. Subtrees that are unchanged since the
+     * previous snapshot of the same nodes are shared with it, so only the rewritten paths are copied.
+     * A node counts as unchanged while its value, encapsulation and number formatting are the same instances
+     * and all of its children snapshot to the nodes of its previous snapshot.
+     * Snapshots also carry which simplification passes are known to leave them alone.
+     */
+    public ActionTree snapshot() {
+        if (frozen)
+            return this;
+        return snapshot(generation().count);
+    }
+
+    private ActionTree snapshot(long generation) {
+        ActionTree previous = this.snapshot;
+        boolean same = previous != null && previous.value == value && previous.encOperator == encOperator
+                && previous.formatNum == formatNum && previous.children.size() == children.size();
+        ExtendedList<ActionTree> copies = null;
+        for (int i = 0; i < children.size(); i++) {
+            ActionTree child = children.get(i);
+            child = child.frozen ? child : child.snapshot(generation);
+            if (copies == null && (!same || previous.children.get(i) != child)) {
+                copies = new ExtendedList<>();
+                for (int j = 0; j < i; j++) {
+                    copies.add(previous.children.get(j));
+                }
+                same = false;
+            }
+            if (copies != null)
+                copies.add(child);
+        }
+        snapshotGeneration = generation;
+        if (same)
+            return previous;
+
+        ActionTree copy = new ActionTree(value);
+        copy.depth = depth;
+        copy.encOperator = encOperator;
+        copy.formatNum = formatNum;
+        copy.children = copies != null ? copies : new ExtendedList<>();
+        copy.frozen = true;
+        this.snapshot = copy;
+        return copy;
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        return clone(new Generation());
+    }
+
+    /**
+     * Copies the subtree as a live tree of the generation.
+     */
+    private ActionTree clone(Generation generation) throws CloneNotSupportedException {
+        ActionTree t = (ActionTree) super.clone();
+        t.frozen = false;
+        t.latex = null;
+        t.generation = generation;
+        t.snapshot = null;
+        t.snapshotGeneration = -1;
+        t.hashGeneration = -1;
+        t.featuresGeneration = -1;
+        t.value = this.value;
+        t.children = new ExtendedList<>();
+        for (ActionTree child : this.children) {
+            t.children.add(child.clone(generation));
+        }
+        return t;
+    }
+
+    private static boolean compareProducts(ActionTree tree1, ActionTree tree2) {
+        if (tree1.value().equals(TokenType.OP, "\\cdot") || tree2.value().equals(TokenType.OP, "\\cdot")) {
+            if (!tree1.value().equals(TokenType.OP, "\\cdot"))
+                return GuavaHelper.ofMultiset(tree1).equals(tree2.children.get(a -> !a.value.is(TokenType.NUM)).collect(GuavaHelper.toHashMultiset()));
+            if (!tree2.value().equals(TokenType.OP, "\\cdot"))
+                return tree1.children.get(a -> !a.value.is(TokenType.NUM)).collect(GuavaHelper.toHashMultiset()).equals(GuavaHelper.ofMultiset(tree2));
+            var set1 = tree1.children.get(a -> !a.value.is(TokenType.NUM)).collect(GuavaHelper.toHashMultiset());
+            var set2 = tree2.children.get(a -> !a.value.is(TokenType.NUM)).collect(GuavaHelper.toHashMultiset());
+            return !set1.isEmpty() && !set2.isEmpty() && set1.equals(set2);
+        }
+        return tree1.equals(tree2);
+    }
+
+    private static TokenPair getProductValue(ActionTree tree) {
+        if (tree.value().equals(TokenType.OP, "\\cdot"))
+            return tree.children.get(a -> a.value.is(TokenType.NUM)).map(ActionTree::value).collect(ExtendedList.toList()).getOr(0, new TokenPair(1.0));
+        return new TokenPair(1.0);
+    }
+
+    private static void tryRemoveParent(ActionTree tree) {
+        if (tree.children.size() == 1) {
+            tree.value = tree.children.get(0).value;
+            tree.children = tree.children.get(0).children;
+            if (tree.value.is(TokenType.NUM) && !tree.value.hasMinus() && (tree.encOperator == null || tree.encOperator.has("(")))
+                tree.encOperator = null;
+        }
+        tree.modified();
+    }
+
+    public String toLatex() {
+        if (latex != null)
+            return latex;
+
+        StringBuilder ltx = new StringBuilder();
+        toLatex(ltx);
+        return latex != null ? latex : ltx.toString();
+    }
+
+    /**
+     * Writes the LaTeX of the tree at the end of the builder, every node appends to the same one.
+     * A frozen tree keeps the text it wrote, so steps that share a subtree with an already rendered step append it as is.
+     */
+    public void toLatex(StringBuilder ltx) {
+        if (latex != null) {
+            ltx.append(latex);
+            return;
+        }
+        int start = ltx.length();
+
+        if (this.value.is(TokenType.ROOT)) {
+            this.children.get(0).toLatex(ltx);
+        } else {
+            Expression.EncapsulationOperator op = this.encOperator != null ? ((Expression.EncapsulationOperator) Equation.EXPRESSIONS.get(this.encOperator)) : null;
+
+            if (op != null) {
+                ltx.append(this.encOperator.value());
+            }
+
+
+            if (this.value.is(TokenType.NUM)) {
+                if (formatNum)
+                    FormatHelper.appendRounded(ltx, this.value.getAsNum(), DECIMALS);
+                else
+                    ltx.append(this.value.value());
+            } else if (this.value.is(TokenType.VAR)) {
+                ltx.append(this.value.value());
+            } else if (this.value.is(TokenType.TEXT)) {
+                ltx.append("\\text{").append(this.value().value()).append("}");
+            } else
+                Equation.EXPRESSIONS.get(this.value()).toLatex(ltx, this.value, this.children);
+
+
+            if (op != null)
+                ltx.append(op.counterpart().value());
+        }
+
+        if (frozen)
+            latex = ltx.substring(start);
+    }
+
+    /**
+     * @param steps receives every step as soon as it is made.
+     * @param precision the precision numbers are evaluated with as BigDecimals, or null to evaluate them as doubles.
+     */
+    public void simplifyExpression(ActionTree root, Consumer<OperationStep> steps, @Nullable MathContext precision) {
+        if (this.value.is(TokenType.ROOT)) {
+            ActionTree rootCl = root._clone();
+            rootCl.omitParentheses();
+            rootCl.applyNegativeSigns();
+            steps.accept(new OperationStep(rootCl, ""));
+            this.children.get(0).simplifyExpression(root, steps, precision);
+            return;
+        }
+
+        root.simplify((a, b) -> {
+            String prefix = "=";
+            if (a.getChild().value().is(TokenType.NUM)) {
+                prefix = "\\approx";
+                formatNum = false;
+            }
+            steps.accept(new OperationStep(a.snapshot(), b.toString(), TokenPair.of(TokenType.COMPARISON, prefix)));
+        }, precision);
+    }
+
+    public void compareExpression(ActionTree root, Consumer<OperationStep> steps, @Nullable MathContext precision) {
+        if (this.value.is(TokenType.ROOT)) {
+            ActionTree rootCl = root._clone();
+            rootCl.omitParentheses();
+            rootCl.applyNegativeSigns();
+            steps.accept(new OperationStep(rootCl, ""));
+            this.children.get(0).compareExpression(root, steps, precision);
+            return;
+        }
+
+        root.simplify((a, b) -> steps.accept(new OperationStep(a.snapshot(), b.toString(), TokenPair.IMPLIES)), precision);
+        root.convertComparison(precision);
+        steps.accept(new OperationStep(root.snapshot(), "", TokenPair.IMPLIES));
+    }
+
+    public void solveEquation(ActionTree root, Consumer<OperationStep> steps, @Nullable MathContext precision) {
+        if (this.value.is(TokenType.ROOT)) {
+            ActionTree rootCl = root._clone();
+            rootCl.omitParentheses();
+            rootCl.applyNegativeSigns();
+            steps.accept(new OperationStep(rootCl, ""));
+            this.children.get(0).compareExpression(root, steps, precision);
+            return;
+        }
+
+        root.simplify((a, b) -> steps.accept(new OperationStep(a.snapshot(), b.toString(), TokenPair.IMPLIES)), precision);
+        root.solve((a, b) -> steps.accept(new OperationStep(a.snapshot(), b, TokenPair.IMPLIES)));
+        steps.accept(new OperationStep(root.snapshot(), "", TokenPair.IMPLIES));
+    }
+
+    /**
+     * Answer only counterpart of the step operations on the root, runs the very same rewrites in place
+     * but records nothing, so there are no steps, no copies of the tree and no messages.
+     * Comparisons end converted exactly like in {@link #compareExpression}, which equations with variables run as well.
+     *
+     * @return the tree the last step would show. That is this root unless the trigonometric pass rewrote an argument
+     * it could not evaluate after the last change, then it is the frozen snapshot taken right after that change.
+     */
+    public ActionTree evaluateExpression(boolean comparing, @Nullable MathContext precision) {
+        ActionTree child = getChild();
+        AtomicBoolean changed = new AtomicBoolean();
+        ActionTree settled = simplify((a, b) -> changed.set(true), precision);
+        if (comparing) {
+            convertComparison(precision);
+            return this;
+        }
+
+        if (settled != snapshot())
+            return settled;
+        if (changed.get() && getChild().value.is(TokenType.NUM))
+            child.formatNum = false;
+        return this;
+    }
+
+    /**
+     * Applies the passes until none of them changes anything, starting over from the first pass after every change.
+     *
+     * @param onChange called after every change with its message, or null when nothing is recorded.
+     * @param precision the precision numbers are evaluated with as BigDecimals, or null to evaluate them as doubles.
+     * @return the snapshot taken right after the last change, or after the initial clean up if nothing changed.
+     * @throws CancellationException if the thread is interrupted.
+     */
+    private ActionTree simplify(@Nullable BiConsumer<ActionTree, CharSequence> onChange, @Nullable MathContext precision) { // \frac{5}{4}\cdot \frac{7}{9}+\frac{7}{6}
+        StringBuilder message = new StringBuilder();
+        boolean changed = false;
+        ActionTree settled = null;
+        if (precision != null)
+            parseExactly();
+        omitParentheses();
+        applyNegativeSigns();
+        for (int i = 0; i < 1; i++) {
+            checkInterrupted();
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (changed || settled == null)
+                settled = snapshot;
+            if (applyOperatorIdentities(message)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            refreshSnapshot();
+            if (divisionsToFractions()) {
+                changed(onChange, "Convert division operators to fractions for better calculations.");
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (simplifyFraction(message, precision)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (executeNumOperators(message, precision)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (executeNonNumOperators(message, precision)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (executeTrigonometricFunctions(message, precision)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (executeConstruct(message, precision)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+                continue;
+            }
+
+            message.setLength(0);
+            refreshSnapshot();
+            if (constToNum(message, precision)) {
+                changed(onChange, message);
+                changed = true;
+                i = -1;
+            }
+        }
+        return settled;
+    }
+
+    private void changed(@Nullable BiConsumer<ActionTree, CharSequence> onChange, CharSequence message) {
+        omitParentheses();
+        applyNegativeSigns();
+        if (onChange != null)
+            onChange.accept(this, message);
+    }
+
+    private void solve(BiConsumer<ActionTree, String> onChange) {
+        StringBuilder message = new StringBuilder();
+        omitParentheses();
+        applyNegativeSigns();
+        for (int i = 0; i < 1; i++) {
+
+        }
+    }
+
+    private void convertComparison(@Nullable MathContext precision) {
+        if (this.value().is(TokenType.COMPARISON)) {
+            if (this.children.get(0).value().is(TokenType.NUM) && this.children.get(1).value().is(TokenType.NUM)) {
+                var d1 = this.children.get(0).value();
+                var d2 = this.children.get(1).value();
+                Expression.ComparisonOperator op = ((Expression.ComparisonOperator) Equation.EXPRESSIONS.get(this.value()));
+                if (op.execute(d1, d2, precision)) {
+                    this.value = TokenPair.TRUE;
+                    this.children.clear();
+                    this.encOperator = TokenPair.BRACES;
+                } else {
+                    this.value = TokenPair.FALSE;
+                    this.children.clear();
+                    this.encOperator = TokenPair.BRACES;
+                }
+                modified();
+            }
+        } else
+            this.children.forEach(a -> a.convertComparison(precision));
+    }
+
+    /**
+     * Backs every number whose double is not exactly the text it was parsed from by a BigDecimal,
+     * so that in precise evaluation a number without one is always exactly its double.
+     */
+    private void parseExactly() {
+        if (this.value.is(TokenType.NUM)) {
+            TokenPair exact = this.value.exactly();
+            if (exact != this.value) {
+                this.value = exact;
+                modified();
+            }
+        }
+
+        this.children.forEach(ActionTree::parseExactly);
+    }
+
+    /**
+     * Iterates through children and omits parentheses.
+     */
+    private void omitParentheses() {
+        this.children.get(a -> a.value.is(TokenType.ENC_OP)).forEach(a -> {
+            a.encOperator = a.value;
+            a.value = a.children.get(0).value;
+            a.children = a.children.get(0).children;
+            modified();
+        });
+
+        this.children.forEach(ActionTree::omitParentheses);
+    }
+
+    /**
+     * Factors out negative signs from multiplication and applies negative sign to numbers.
+     */
+    private void applyNegativeSigns() {
+
+        //factor out negative sign in multiplication
+        for (int i = 0; i < this.children.size(); i++) {
+            var a = this.children.get(i);
+            if (a.value.equals(TokenType.OP, "\\cdot") && a.children.stream().anyMatch(a1 -> a1.value.equals(TokenType.DEL_OP, "-"))) {
+                for (int j = 0; j < a.children.size(); j++) {
+                    ActionTree child = a.children.get(j);
+                    if (child.value.equals(TokenType.DEL_OP, "-")) {
+                        if (this.value.equals(TokenType.DEL_OP, "-")) {
+                            child.value = child.children.get(0).value;
+                            child.children = child.children.get(0).children;
+                            this.value = a.value;
+                            this.children = a.children;
+                            modified();
+                        } else {
+                            var newN = new ActionTree(TokenPair.NEGATIVE);
+
+                            child.value = child.children.get(0).value;
+                            child.children = child.children.get(0).children;
+
+                            newN.insert(a);
+                            this.children.removeRange(i, 1);
+                            this.children.add(i, newN);
+                            adopt(newN);
+                            modified();
+                        }
+                    }
+                }
+            }
+        }
+
+        //apply negative sign to numbers
+        this.children.get(a -> a.value.equals(TokenType.DEL_OP, "-")).forEach(a -> {
+            var child = a.children.get(0).value;
+            if (child.is(TokenType.NUM)) {
+                a.children.clear();
+                a.value = child.negate();
+                a.encOperator = null;
+                modified();
+            }
+        });
+
+        this.children.forEach(ActionTree::applyNegativeSigns);
+    }
+
+    /**
+     * Executes operator identities: x * 1 = x, x * 0 = 0, x + 0 = x
+     */
+    private boolean applyOperatorIdentities(StringBuilder message) {
+        AtomicBoolean changed = new AtomicBoolean();
+
+        if (this.value.is(TokenType.OP)) {
+            for (int i = 0; i < this.children.size(); i++) {
+                if (this.value.equals(TokenType.OP, "\\cdot") && this.children.get(i).value.equalsNumber(1)) {
+                    this.children.removeIndices(i);
+                    tryRemoveParent(this);
+                    message.append("In multiplication, 1 is ignored such that <mth-f> x \\cdot 1 = x </mth-f>");
+                    changed.set(true);
+                    break;
+                } else if (this.value.equals(TokenType.OP, "\\cdot") && this.children.get(i).value.equalsNumber(0)) {
+                    this.value = new TokenPair(0.0);
+                    this.children.clear();
+                    tryRemoveParent(this);
+                    message.append("When any number is multiplied by 0, the resulting product is always 0 such that <mth-f> x \\cdot 0 = 0 </mth-f>");
+                    changed.set(true);
+                    break;
+                } else if (this.value.equals(TokenType.OP, "+") && this.children.get(i).value.equalsNumber(0)) {
+                    this.children.removeIndices(i);
+                    tryRemoveParent(this);
+                    message.append("In addition, 0 is ignored such that <mth-f> x + 0 = x </mth-f>");
+                    changed.set(true);
+                    break;
+                }
+            }
+        }
+
+        return changed.get() || anyChild(IDENTITIES, a -> a.applyOperatorIdentities(message));
+    }
+
+    /**
+     * Converts \\div operator to fractions
+     */
+    private boolean divisionsToFractions() {
+        AtomicBoolean changed = new AtomicBoolean();
+
+        if (this.value.equals(TokenType.OP, "\\cdot")) {
+            var indexes = new ArrayList<Integer>();
+            this.children.forI(i -> {
+                var a = this.children.get(i);
+                if (a.value.equals(TokenType.DEL_OP, "\\div"))
+                    indexes.add(i);
+            });
+
+            if (!indexes.isEmpty()) {
+                var fraction = new ActionTree(TokenPair.FRACTION);
+
+                var numerator = new ActionTree(TokenPair.BRACES);
+                var numeratorMult = new ActionTree(TokenPair.PRODUCT);
+                var denominator = new ActionTree(TokenPair.BRACES);
+                var denominatorMult = new ActionTree(TokenPair.PRODUCT);
+
+                for (int i = 0; i < this.children.size(); i++) {
+                    if (!indexes.contains(i)) {
+                        numeratorMult.insert(this.children.get(i));
+                    } else {
+                        denominatorMult.insert(this.children.get(i).children);
+                    }
+                }
+
+                numerator.insert(numeratorMult);
+                denominator.insert(denominatorMult);
+                fraction.insert(numerator);
+                fraction.insert(denominator);
+
+                this.value = fraction.value;
+                this.children = fraction.children;
+                adopt(fraction);
+                modified();
+                changed.set(true);
+            }
+        }
+
+        return changed.get() || anyChild(DIVISIONS, a -> a.divisionsToFractions());
+    }
+
+    /**
+     * Omits fraction denominated with 1      &#x09; &#x09;     x/1 = x <br>
+     * Cancels any pairs of inverse numbers    &#x09;           x*(1/x) = 1 <br>
+     * Long Division (Means and extremes)    &#x09;       (a/b)/(c/d) = ad/bc <br>
+     * Simplify with GCD      &#x09;&#x09;                  x/y = (x * gcd(x, y)) / (y * gcd(x, y)) <br>
+     */
+    private boolean simplifyFraction(StringBuilder message, @Nullable MathContext precision) {
+        AtomicBoolean changed = new AtomicBoolean();
+
+        for (int i = 0; i < this.children.size(); i++) {
+            var a = this.children.get(i);
+            if (a.value().equals(TokenType.STRUCT, "\\frac")) {
+                var num = a.children.get(0);
+                var den = a.children.get(1);
+                if (den.value().is(TokenType.NUM) && den.value().equalsNumber(1)) {
+                    a.value = num.value();
+                    a.children = num.children;
+                    modified();
+
+                    message.append("A denominator of 1 can be ignored in division such that <mth-f> \\frac{x}{1} = x </mth-f>");
+                    changed.set(true);
+                    break;
+                } else if (num.value().has("\\frac") || den.value().has("\\frac")) {
+                    ActionTree num1;
+                    ActionTree den1;
+                    ActionTree num2;
+                    ActionTree den2;
+
+                    if (!num.value().has("\\frac")) {
+                        num1 = num;
+                        den1 = new ActionTree(new TokenPair(1.0));
+                        num2 = den.children.get(0);
+                        den2 = den.children.get(1);
+                    } else if (!den.value().has("\\frac")) {
+                        num1 = num.children.get(0);
+                        den1 = num.children.get(1);
+                        num2 = den;
+                        den2 = new ActionTree(new TokenPair(1.0));
+                    } else {
+                        num1 = num.children.get(0);
+                        den1 = num.children.get(1);
+                        num2 = den.children.get(0);
+                        den2 = den.children.get(1);
+                    }
+
+                    var newFrac = new ActionTree(TokenPair.FRACTION);
+                    var newNum = new ActionTree(TokenPair.PRODUCT);
+                    newNum.encOperator = num.encOperator;
+                    newNum.insert(num1);
+                    newNum.insert(den2);
+                    var newDen = new ActionTree(TokenPair.PRODUCT);
+                    newDen.encOperator = num.encOperator;
+                    newDen.insert(den1);
+                    newDen.insert(num2);
+                    newFrac.insert(newNum);
+                    newFrac.insert(newDen);
+
+                    this.value = newFrac.value();
+                    this.children = newFrac.children;
+                    adopt(newFrac);
+                    modified();
+
+                    message.append("Simplify long division using <mth-f>\\frac{ \\frac{a}{b} }{ \\frac{c}{d} } = \\frac{ a \\cdot d }{ b \\cdot c }</mth-f> rule.");
+                    changed.set(true);
+                    break;
+                } else if (num.value().equals(TokenType.OP, "\\cdot") && den.value().equals(TokenType.OP, "\\cdot")) {
+                    var numerator = GuavaHelper.ofMultiset(num.children.toArray(ActionTree[]::new));
+                    var denominator = GuavaHelper.ofMultiset(den.children.toArray(ActionTree[]::new));
+                    var crossed = numerator.stream().filter(denominator::contains).collect(GuavaHelper.toHashMultiset());
+                    for (ActionTree b : crossed) {
+                        num.children.remove(b);
+                        den.children.remove(b);
+                        modified();
+                        message.append("Cancel out inverse pairs using <mth-f>x \\cdot \\frac{1}{x} = 1</mth-f> rule.");
+                        changed.set(true);
+                        break;
+                    }
+
+                    if (!changed.get()) {
+                        var nums1 = num.children.get(at -> at.value().is(TokenType.NUM)).toList();
+                        var nums2 = den.children.get(at -> at.value().is(TokenType.NUM)).toList();
+                        if (nums1.size() == 1 && nums2.size() == 1) {
+                            if (divideByGcd(nums1.get(0), nums2.get(0), message))
+                                changed.set(true);
+                        }
+                    }
+                } else if (num.value().equals(TokenType.OP, "\\cdot") || den.value().equals(TokenType.OP, "\\cdot")) {
+                    ActionTree root = null;
+                    ActionTree opposite = null;
+
+                    if (!num.value().equals(TokenType.OP, "\\cdot")) {
+                        root = num;
+                        opposite = den;
+                    } else if (!den.value().equals(TokenType.OP, "\\cdot")) {
+                        root = den;
+                        opposite = num;
+                    }
+
+                    HashMultiset<ActionTree> set = GuavaHelper.ofMultiset(root);
+                    for (ActionTree b : opposite.children.get(set::contains).toList()) {
+                        root.value = new TokenPair(1.0);
+                        root.children.clear();
+                        opposite.children.remove(b);
+                        modified();
+                        message.append("Cancel out inverse pairs using <mth-f>x \\cdot \\frac{1}{x} = 1</mth-f> rule.");
+                        changed.set(true);
+                        break;
+                    }
+
+                    if (!changed.get()) {
+                        var nums = opposite.children.get(at -> at.value().is(TokenType.NUM)).toList();
+                        if (root.value().is(TokenType.NUM) && nums.size() == 1) {
+                            if (divideByGcd(root, nums.get(0), message))
+                                changed.set(true);
+                        }
+                    }
+                } else if (num.equals(den)) {
+                    a.value = new TokenPair(1.0);
+                    a.children.clear();
+                    modified();
+                    message.append("Cancel out inverse pairs using <mth-f>x \\cdot \\frac{1}{x} = 1</mth-f> rule.");
+                    changed.set(true);
+                } else if (num.value().is(TokenType.NUM) && den.value().is(TokenType.NUM)) {
+                    if (divideByGcd(num, den, message))
+                        changed.set(true);
+                }
+            }
+        }
+
+        return changed.get() || anyChild(FRACTIONS, a -> a.simplifyFraction(message, precision));
+    }
+
+    /**
+     * Divides two numbers by their greatest common divisor, each keeps its sign. Only numbers with at most
+     * 14 decimals have one, both are scaled to whole numbers and reduced exactly.
+     */
+    private static boolean divideByGcd(ActionTree first, ActionTree second, StringBuilder message) {
+        if (first.value.isBig() || second.value.isBig())
+            return divideBigByGcd(first, second, message);
+
+        double d1 = first.value.getAsNum();
+        double d2 = second.value.getAsNum();
+        int decimals1 = Rational.decimals(d1);
+        int decimals2 = Rational.decimals(d2);
+        if (decimals1 < 0 || decimals2 < 0 || d2 == 0)
+            return false;
+
+        double n1;
+        double n2;
+        long u1 = Rational.unscaled(d1, Math.max(decimals1, decimals2));
+        long u2 = Rational.unscaled(d2, Math.max(decimals1, decimals2));
+        if (u1 != Rational.INEXACT && u2 != Rational.INEXACT) {
+            long gcd = Rational.gcd(Math.abs(u1), Math.abs(u2));
+            n1 = u1 / gcd;
+            n2 = u2 / gcd;
+        } else {
+            Rational ratio = Rational.valueOf(d1).divide(Rational.valueOf(d2));
+            n1 = Math.copySign(Math.abs(ratio.numeratorValue()), d1);
+            n2 = Math.copySign(ratio.denominatorValue(), d2);
+        }
+        if (n1 == d1 && n2 == d2)
+            return false;
+
+        first.value = new TokenPair(n1);
+        second.value = new TokenPair(n2);
+        first.modified();
+        message.append("Simplify by dividing the numbers ").append(d1).append(" and ").append(d2).append(" by their GCD(Greatest Common Divisor).");
+        return true;
+    }
+
+    /**
+     * {@link #divideByGcd} for numbers backed by a BigDecimal, under the same limit of 14 decimals.
+     */
+    private static boolean divideBigByGcd(ActionTree first, ActionTree second, StringBuilder message) {
+        if (!first.value.isFinite() || !second.value.isFinite())
+            return false;
+        BigDecimal d1 = first.value.getAsBig();
+        BigDecimal d2 = second.value.getAsBig();
+        int decimals = Math.max(Math.max(d1.stripTrailingZeros().scale(), d2.stripTrailingZeros().scale()), 0);
+        if (decimals > Rational.MAX_DECIMALS || d2.signum() == 0)
+            return false;
+
+        BigInteger u1 = d1.movePointRight(decimals).toBigIntegerExact();
+        BigInteger u2 = d2.movePointRight(decimals).toBigIntegerExact();
+        BigInteger gcd = u1.gcd(u2);
+        BigDecimal n1 = new BigDecimal(u1.divide(gcd));
+        BigDecimal n2 = new BigDecimal(u2.divide(gcd));
+        if (n1.compareTo(d1) == 0 && n2.compareTo(d2) == 0)
+            return false;
+
+        first.value = TokenPair.of(n1);
+        second.value = TokenPair.of(n2);
+        first.modified();
+        message.append("Simplify by dividing the numbers ").append(d1).append(" and ").append(d2).append(" by their GCD(Greatest Common Divisor).");
+        return true;
+    }
+
+    /**
+     * Executes operators for numbers. <br>
+     * All numbers of a node are folded in a single step, the result takes the place after the remaining children.
+     */
+    private boolean executeNumOperators(StringBuilder message, @Nullable MathContext precision) {
+        boolean changed = false;
+
+        if (this.value.is(TokenType.OP)) {
+            int count = 0;
+            for (ActionTree child : this.children) {
+                if (child.value.is(TokenType.NUM))
+                    count++;
+            }
+
+            if (count > 1) {
+                Expression.Operator op = (Expression.Operator) Equation.EXPRESSIONS.get(this.value);
+                ExtendedList<ActionTree> rest = new ExtendedList<>();
+                int i = 0;
+                if (precision == null) {
+                    double[] values = new double[count];
+                    for (ActionTree child : this.children) {
+                        if (child.value.is(TokenType.NUM))
+                            values[i++] = child.value.getAsNum();
+                        else
+                            rest.add(child);
+                    }
+                    rest.add(new ActionTree(new TokenPair(op.reduce(values, count))));
+                } else {
+                    TokenPair[] values = new TokenPair[count];
+                    for (ActionTree child : this.children) {
+                        if (child.value.is(TokenType.NUM))
+                            values[i++] = child.value;
+                        else
+                            rest.add(child);
+                    }
+                    rest.add(new ActionTree(op.reduce(values, count, precision)));
+                }
+                this.children = rest;
+                adopt(rest.get(rest.size() - 1));
+
+                tryRemoveParent(this);
+                changed = true;
+                message.append("Calculate the ").append(op.verbose()).append(".");
+            }
+        }
+
+        return changed || anyChild(NUM_OPERATORS, a -> a.executeNumOperators(message, precision));
+    }
+
+    /**
+     * Lets a calculation running on a worker be stopped, some inputs never stop changing otherwise.
+     *
+     * @throws CancellationException if the current thread has been interrupted.
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted())
+            throw new CancellationException("The simplification was interrupted");
+    }
+
+    /**
+     * Addition for common factors       &#x09; &#x09;     ax + bx = (a + b)x <br>
+     * Fraction Addition using LCD         &#x09; &#x09;      a/b + c/d = (ad+cb)/bd <br>
+     * Fraction Multiplication
+     */
+    private boolean executeNonNumOperators(StringBuilder message, @Nullable MathContext precision) {
+        AtomicBoolean changed = new AtomicBoolean();
+
+
+        if (this.value.is(TokenType.OP)) {
+            String msg = "";
+
+            ActionTree child1 = null;
+            ActionTree child2 = null;
+            var non_nums = this.children.get(a -> !a.value.is(TokenType.NUM)).collect(Collectors.toCollection(ExtendedList::new));
+            int last1 = 0;
+            int last2 = -1;
+            while (non_nums.size() > last1) {
+                checkInterrupted();
+
+                for (int i = last1; i < non_nums.size(); i++) {
+                    if (child1 == null) {
+                        child1 = non_nums.get(i);
+                        last1 = i;
+                    }
+                    for (int j = last2 + 1; j < non_nums.size(); j++) {
+                        if (j == last1) continue;
+                        if (child2 == null) {
+                            child2 = non_nums.get(j);
+                            last2 = j;
+                            if (j == non_nums.size() - 1) {
+                                last1++;
+                                last2 = 0;
+                            }
+                        }
+                    }
+                }
+
+                if (child1 == null || child2 == null) {
+                    break;
+                } else if (this.value().has("+")) {
+                    if (child1.value().equals(TokenType.STRUCT, "\\frac") && child2.value().equals(TokenType.STRUCT, "\\frac")) {
+                        var a = child1.children.get(0);
+                        var b = child1.children.get(1);
+                        var c = child2.children.get(0);
+                        var d = child2.children.get(1);
+
+                        var newFrac = new ActionTree(TokenPair.FRACTION);
+
+                        var newNum = new ActionTree(TokenPair.SUM);
+                        var ad = new ActionTree(TokenPair.PRODUCT);
+                        ad.insert(a);
+                        ad.insert(d);
+                        var cb = new ActionTree(TokenPair.PRODUCT);
+                        cb.insert(c);
+                        cb.insert(b);
+                        newNum.insert(ad);
+                        newNum.insert(cb);
+                        newNum.encOperator = a.encOperator;
+
+                        var newDen = new ActionTree(TokenPair.PRODUCT);
+                        newDen.insert(b);
+                        newDen.insert(d);
+                        newDen.encOperator = b.encOperator;
+
+                        newFrac.insert(newNum);
+                        newFrac.insert(newDen);
+
+                        this.children.remove(child1);
+                        this.children.remove(child2);
+                        this.children.add(newFrac);
+                        adopt(newFrac);
+
+                        tryRemoveParent(this);
+
+                        non_nums = this.children.get(at -> !at.value.is(TokenType.NUM)).collect(Collectors.toCollection(ExtendedList::new));
+                        changed.set(true);
+                        msg = "Find Least Common Denominator (LCD) and rewrite the fraction sum using <mth-f> \\frac{a}{b} + \\frac{c}{d} = \\frac{a \\cdot d + c \\cdot b}{b \\cdot d} </mth-f> rule.";
+                    } else if (compareProducts(child1, child2)) {
+                        TokenPair val1 = getProductValue(child1);
+                        TokenPair val2 = getProductValue(child2);
+
+                        var at = new ActionTree(TokenPair.PRODUCT);
+                        at.insert(new ActionTree(((Expression.Operator) Equation.EXPRESSIONS.get(TokenPair.SUM)).apply(val1, val2, precision)));
+                        if (child1.value().equals(TokenType.OP, "\\cdot"))
+                            child1.children.get(a -> !a.value.is(TokenType.NUM)).forEach(at::insert);
+                        else if (child2.value().equals(TokenType.OP, "\\cdot"))
+                            child2.children.get(a -> !a.value.is(TokenType.NUM)).forEach(at::insert);
+                        else
+                            at.insert(child1);
+
+                        this.children.remove(child1);
+                        this.children.remove(child2);
+                        this.children.add(at);
+                        adopt(at);
+
+                        tryRemoveParent(this);
+
+                        non_nums = this.children.get(a -> !a.value.is(TokenType.NUM)).collect(Collectors.toCollection(ExtendedList::new));
+                        changed.set(true);
+                        msg = "Add the coefficients of the common factors.";
+                    } else {
+                        break;
+                    }
+                } else if (this.value().has("\\cdot")) {
+                    if (child1.value().equals(TokenType.STRUCT, "\\frac") && child2.value().equals(TokenType.STRUCT, "\\frac")) {
+                        var a = child1.children.get(0);
+                        var b = child1.children.get(1);
+                        var c = child2.children.get(0);
+                        var d = child2.children.get(1);
+
+                        var newFrac = new ActionTree(TokenPair.FRACTION);
+                        var newNum = new ActionTree(TokenPair.PRODUCT);
+                        newNum.insert(a);
+                        newNum.insert(c);
+                        newNum.encOperator = a.encOperator;
+                        var newDen = new ActionTree(TokenPair.PRODUCT);
+                        newDen.insert(b);
+                        newDen.insert(d);
+                        newDen.encOperator = b.encOperator;
+
+                        newFrac.insert(newNum);
+                        newFrac.insert(newDen);
+
+                        this.children.remove(child1);
+                        this.children.remove(child2);
+                        this.children.add(newFrac);
+                        adopt(newFrac);
+
+                        tryRemoveParent(this);
+                        non_nums = this.children.get(at -> !at.value.is(TokenType.NUM)).collect(Collectors.toCollection(ExtendedList::new));
+                        changed.set(true);
+                        msg = "Calculate the product of the fractions.";
+                    } else if (child1.value().equals(TokenType.STRUCT, "\\frac") && child2.value().equals(TokenType.STRUCT, "\\frac")) {
+                        ActionTree a, b, c;
+                        if (child1.value().equals(TokenType.STRUCT, "\\frac")) {
+                            a = child1.children.get(0);
+                            b = child1.children.get(1);
+                            c = child2;
+                        } else {
+                            a = child2.children.get(0);
+                            b = child2.children.get(1);
+                            c = child1;
+                        }
+
+                        var newFrac = new ActionTree(TokenPair.FRACTION);
+                        var newNum = new ActionTree(TokenPair.PRODUCT);
+                        newNum.insert(a);
+                        newNum.insert(c);
+                        newNum.encOperator = a.encOperator;
+
+                        newFrac.insert(newNum);
+                        newFrac.insert(b);
+
+                        this.children.remove(child1);
+                        this.children.remove(child2);
+                        this.children.add(newFrac);
+                        adopt(newFrac);
+
+                        tryRemoveParent(this);
+                        non_nums = this.children.get(at -> !at.value.is(TokenType.NUM)).collect(Collectors.toCollection(ExtendedList::new));
+                        changed.set(true);
+                        msg = "Calculate the product of the fractions.";
+                    } else {
+                        break;
+                    }
+                } else {
+                    break;
+                }
+            }
+
+            if (changed.get())
+                message.append(msg);
+        }
+
+        return changed.get() || anyChild(NON_NUM_OPERATORS, a -> a.executeNonNumOperators(message, precision));
+    }
+
+
+    /**
+     * Executes trigonometric functions.
+     */
+    private boolean executeTrigonometricFunctions(StringBuilder message, @Nullable MathContext precision) {
+        AtomicBoolean changed = new AtomicBoolean();
+
+        this.children.get(a -> a.value.is(TokenType.TRIG_FUN)).forEach(a -> {
+            if (!changed.get()) {
+                Expression.TrigonometricFunction fun = ((Expression.TrigonometricFunction) Equation.EXPRESSIONS.get(a.value));
+                var input = a.children.get(0);
+                input.simplify(null, precision);
+                if (input.value.is(TokenType.NUM)) {
+                    ActionTree val = fun.execute(input.value, precision);
+                    a.children.clear();
+                    a.value = val.value;
+                    a.children = val.children;
+                    adopt(val);
+                    modified();
+                    changed.set(true);
+                    message.append("Calculate the trigonometric ").append(fun.name()).append(" function");
+                }
+            }
+        });
+
+        return changed.get() || anyChild(TRIGONOMETRY, a -> a.executeTrigonometricFunctions(message, precision));
+    }
+
+    /**
+     * TODO
+     */
+    private boolean executeConstruct(StringBuilder message, @Nullable MathContext precision) {
+        AtomicBoolean changed = new AtomicBoolean();
+
+        this.children.get(a -> a.value.is(TokenType.STRUCT)).forEach(a -> {
+            if (!changed.get()) {
+                Expression.Construct struct = ((Expression.Construct) Equation.EXPRESSIONS.get(a.value));
+                ActionTree[] inputs = a.children.toArray(ActionTree[]::new);
+                ActionTree result = struct.execute(inputs, precision);
+                if (result != null) {
+                    a.children.clear();
+                    a.value = result.value();
+                    a.children = result.children;
+                    adopt(result);
+                    modified();
+                    changed.set(true);
+                    message.append("Calculate the ").append(struct.verbose()).append(".");
+                }
+
+            }
+        });
+
+        return changed.get() || anyChild(CONSTRUCTS, a -> a.executeConstruct(message, precision));
+    }
+
+    /**
+     * Converts constants to numbers
+     */
+    private boolean constToNum(StringBuilder message, @Nullable MathContext precision) {
+        AtomicBoolean changed = new AtomicBoolean();
+        List<String> conversions = new ArrayList<>();
+
+        this.children.get(a -> (a.value.is(TokenType.DEL_OP) && a.children.get(0).value.is(TokenType.CONST)) || a.value.is(TokenType.CONST)).forEach(a -> {
+            a = a.value.is(TokenType.CONST) ? a : a.children.get(0);
+            Expression.Constant cons = ((Expression.Constant) Equation.EXPRESSIONS.get(a.value));
+            changed.set(true);
+            conversions.add(a.value.value());
+            a.value = cons.number(precision);
+            modified();
+        });
+
+        if (conversions.size() > 0) {
+            message.append("Convert constant").append(conversions.size() > 1 ? "s" : "");
+            for (int i = 0; i < conversions.size(); i++) {
+                String s = conversions.get(i);
+                message.append(" <mth-f> ").append(s).append(" </mth-f> ");
+                if (i + 1 < conversions.size()) {
+                    message.append("and");
+                }
+            }
+            message.append("to a number.");
+        }
+
+        return changed.get() || anyChild(CONSTANTS, a -> a.constToNum(message, precision));
+    }
+
+    /**
+     * Counts the in place rewrites of a tree, the caches of its live nodes hold while the count they were made at is current.
+     * Linked trees share one, a joined generation leads to the one that replaced it.
+     */
+    private static final class Generation {
+        private long count;
+        private Generation joined;
+
+        /**
+         * @return the generation this one was joined into last, the chain is shortened on the way.
+         */
+        private Generation last() {
+            Generation last = this;
+            while (last.joined != null) {
+                last = last.joined;
+            }
+            Generation generation = this;
+            while (generation != last) {
+                Generation next = generation.joined;
+                generation.joined = last;
+                generation = next;
+            }
+            return last;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package net.congueror.calculator.structure;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numbers keep their parsed value next to the text, so arithmetic never parses them again.
+ * Numbers created from a value only get their text once it is asked for.
+ * In precise evaluation a number whose double is not its exact value is backed by a BigDecimal, see {@link #of(BigDecimal)}.
+ * Every other token is a shared canonical instance, see {@link #of(TokenType, String)}, numbered by a small id.
+ */
+public final class TokenPair {
+    private static final Map<TokenType, Map<String, TokenPair>> CANONICAL = new EnumMap<>(TokenType.class);
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    static {
+        for (TokenType type : TokenType.values()) {
+            CANONICAL.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static final TokenPair SUM = of(TokenType.OP, "+");
+    public static final TokenPair PRODUCT = of(TokenType.OP, "\\cdot");
+    public static final TokenPair NEGATIVE = of(TokenType.DEL_OP, "-");
+    public static final TokenPair FRACTION = of(TokenType.STRUCT, "\\frac");
+    public static final TokenPair BRACES = of(TokenType.ENC_OP, "{");
+    public static final TokenPair IMPLIES = of(TokenType.LOGIC, "\\implies");
+    public static final TokenPair ROOT = of(TokenType.ROOT, "root");
+    public static final TokenPair TRUE = of(TokenType.TEXT, "True");
+    public static final TokenPair FALSE = of(TokenType.TEXT, "False");
+    public static final TokenPair NONE = of(TokenType.NONE, "");
+
+    private final TokenType type;
+    private String value;
+    private final double num;
+    private final BigDecimal big;
+    private final boolean parsed;
+    private final ActionTree node;
+    private final int id;
+    private int hash;
+
+    private TokenPair(TokenType type, String value, int id) {
+        this.type = type;
+        this.value = value;
+        this.num = type == TokenType.NUM ? Double.parseDouble(value) : Double.NaN;
+        this.big = null;
+        this.parsed = type == TokenType.NUM;
+        this.node = null;
+        this.id = id;
+    }
+
+    /**
+     * Returns the canonical token of the type and value, created the first time it is asked for.
+     * Numbers are the exception, a new token is parsed from the text every time.
+     */
+    public static TokenPair of(TokenType type, String value) {
+        if (type == TokenType.NUM)
+            return new TokenPair(type, value, -1);
+        return CANONICAL.get(type).computeIfAbsent(value, v -> new TokenPair(type, v, IDS.getAndIncrement()));
+    }
+
+    /**
+     * Placeholder for an already built subtree inside a token list that is being parsed.
+     */
+    public TokenPair(ActionTree node) {
+        this.type = TokenType.NODE;
+        this.value = "node";
+        this.num = Double.NaN;
+        this.big = null;
+        this.parsed = false;
+        this.node = node;
+        this.id = -1;
+    }
+
+    public TokenPair(double value) {
+        this.type = TokenType.NUM;
+        this.num = value;
+        this.big = null;
+        this.parsed = false;
+        this.node = null;
+        this.id = -1;
+    }
+
+    private TokenPair(BigDecimal value) {
+        this.type = TokenType.NUM;
+        this.value = value.toString();
+        this.num = value.doubleValue();
+        this.big = value;
+        this.parsed = false;
+        this.node = null;
+        this.id = -1;
+    }
+
+    /**
+     * @return a number backed by the BigDecimal, or by a double when that holds the value exactly.
+     */
+    public static TokenPair of(BigDecimal value) {
+        double d = value.doubleValue();
+        if (Double.isFinite(d) && new BigDecimal(d).compareTo(value) == 0)
+            return new TokenPair(d);
+        return new TokenPair(value);
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    public String value() {
+        String v = value;
+        if (v == null) {
+            v = value = String.valueOf(num);
+        }
+        return v;
+    }
+
+    public ActionTree node() {
+        return node;
+    }
+
+    /**
+     * @return the id of a canonical token, unique and never reused, or -1 for numbers and subtree placeholders.
+     */
+    public int id() {
+        return id;
+    }
+
+    public double getAsNum() {
+        return type == TokenType.NUM ? num : Double.parseDouble(value());
+    }
+
+    /**
+     * Whether the number is backed by a BigDecimal, its double is then only the closest approximation.
+     */
+    public boolean isBig() {
+        return big != null;
+    }
+
+    /**
+     * Whether the number is neither infinite nor NaN, a BigDecimal always is.
+     */
+    public boolean isFinite() {
+        return big != null || Double.isFinite(num);
+    }
+
+    /**
+     * @return the exact value of the number, a number without a BigDecimal is exactly its double.
+     * @throws NumberFormatException if the number is infinite or NaN.
+     */
+    public BigDecimal getAsBig() {
+        return big != null ? big : new BigDecimal(num);
+    }
+
+    /**
+     * Numbers parsed from a text that no double holds exactly, like 0.1, are backed by a BigDecimal of the text.
+     *
+     * @return this number if its double is exactly its value, otherwise a BigDecimal backed copy.
+     */
+    public TokenPair exactly() {
+        if (!parsed || !Double.isFinite(num))
+            return this;
+        BigDecimal exact = new BigDecimal(value);
+        return exact.compareTo(new BigDecimal(num)) == 0 ? this : new TokenPair(exact);
+    }
+
+    /**
+     * @return the number with the opposite sign, backed the same way.
+     */
+    public TokenPair negate() {
+        return big != null ? new TokenPair(big.negate()) : new TokenPair(-num);
+    }
+
+    /**
+     * Whether the text of the number contains a minus, as its sign or in a negative exponent.
+     */
+    public boolean hasMinus() {
+        if (value != null)
+            return value.contains("-");
+        double abs = Math.abs(num);
+        return (Double.doubleToRawLongBits(num) < 0 && !Double.isNaN(num)) || (abs > 0 && abs < 1e-3);
+    }
+
+    public boolean isEmpty() {
+        return type == TokenType.NONE || value().equals("");
+    }
+
+    public boolean is(TokenType type) {
+        return this.type == type;
+    }
+
+    public boolean isOr(TokenType... types) {
+        for (TokenType t : types) {
+            if (this.type == t) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean has(String value) {
+        return Objects.equals(this.value(), value);
+    }
+
+    public boolean hasOr(String... values) {
+        for (String s : values) {
+            if (this.has(s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean equals(TokenType type, String value) {
+        return this.is(type) && this.has(value);
+    }
+
+    public boolean equalsOr(TokenType type, String... values) {
+        return this.is(type) && this.hasOr(values);
+    }
+
+    public boolean equalsNumber(double num) {
+        if (this.type == TokenType.NUM) {
+            return big == null && this.num == num;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + type + ": \"" + value() + "\"]";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (TokenPair) obj;
+        if (this.value == null && that.value == null)
+            return Double.doubleToLongBits(this.num) == Double.doubleToLongBits(that.num);
+        return this.node == that.node && this.equals(that.type, that.value());
+    }
+
+    /**
+     * Same value as {@code Objects.hash(type.id(), value)}, computed once since neither changes.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = hash = Objects.hash(type.id(), value());
+        }
+        return h;
+    }
+
+}
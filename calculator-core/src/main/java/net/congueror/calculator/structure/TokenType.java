@@ -0,0 +1,39 @@
+package net.congueror.calculator.structure;
+
+/**
+ * Kind of a {@link TokenPair}, compared by identity instead of by name.
+ */
+public enum TokenType {
+    NUM("num"),
+    VAR("var"),
+    CONST("const"),
+    OP("op"),
+    DEL_OP("delOp"),
+    ENC_OP("encOp"),
+    TRIG_FUN("trigFun"),
+    STRUCT("struct"),
+    COMPARISON("comparison"),
+    LOGIC("logic"),
+    ROOT("root"),
+    TEXT("text"),
+    NODE("node"),
+    NONE("");
+
+    private final String id;
+
+    TokenType(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the name the token type had when types were plain strings, used in {@link TokenPair#toString()}.
+     */
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,78 @@
+package net.congueror.calculator;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Replays typing and random edits, every update must give the equation a fresh parse of the same text gives.
+ */
+class IncrementalEquationTest {
+    private static final String CHARACTERS = "0123456789.+-=x(){}\\ E";
+    private static final String[] SNIPPETS = {"\\left(", "\\right)", "\\cdot ", "\\frac{1}{2}", "\\pi ", "\\sin", "\\div ", "2E-", "\\ "};
+
+    @BeforeAll
+    static void register() {
+        Expression.registerExpressions();
+    }
+
+    /**
+     * @return the tree and the actions. A failed parse is described by the type of its exception only, lexing resumes
+     * at the damage so a text with several errors may report another one than a fresh parse does.
+     */
+    private static String describe(Equation equation) {
+        return equation.getRoot() + " " + equation.getActions();
+    }
+
+    private static String fresh(String text) {
+        try {
+            return describe(new Equation(text));
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static String incremental(IncrementalEquation incremental, String text) {
+        try {
+            return describe(incremental.update(text));
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    void randomEdits() throws IOException {
+        Random random = new Random(7);
+        List<String> equations = PrecedenceParserTest.equations();
+        for (int n = 0; n < 100; n++) {
+            String equation = equations.get(random.nextInt(equations.size()));
+            List<String> states = new ArrayList<>();
+            for (int i = 1; i <= Math.min(equation.length(), 40); i++) {
+                states.add(equation.substring(0, i));
+            }
+            String text = equation;
+            states.add(text);
+            for (int k = 0; k < 30; k++) {
+                int at = random.nextInt(text.length() + 1);
+                switch (random.nextInt(4)) {
+                    case 0 -> text = text.substring(0, at) + text.substring(Math.min(text.length(), at + 1 + random.nextInt(3)));
+                    case 1 -> text = text.substring(0, at) + CHARACTERS.charAt(random.nextInt(CHARACTERS.length())) + text.substring(at);
+                    case 2 -> text = text.substring(0, at) + SNIPPETS[random.nextInt(SNIPPETS.length)] + text.substring(at);
+                    default -> text = equation;
+                }
+                states.add(text);
+            }
+
+            IncrementalEquation incremental = new IncrementalEquation();
+            for (String state : states) {
+                assertEquals(fresh(state), incremental(incremental, state), state);
+            }
+        }
+    }
+}
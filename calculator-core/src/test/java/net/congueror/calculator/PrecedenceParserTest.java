@@ -0,0 +1,68 @@
+package net.congueror.calculator;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The precedence parser must build the tree of the legacy parser, except for a - right after an operator.
+ */
+class PrecedenceParserTest {
+    private static final Pattern MINUS_AFTER_OPERATOR = Pattern.compile("(=|<|>|\\\\ne|\\\\approx|\\\\ge|\\\\le|\\+|\\\\cdot|\\\\div)\\s*-");
+
+    @BeforeAll
+    static void register() {
+        Expression.registerExpressions();
+    }
+
+    static List<String> equations() throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(PrecedenceParserTest.class.getResourceAsStream("/equations.txt")), StandardCharsets.UTF_8))) {
+            return reader.lines().filter(line -> !line.isBlank()).toList();
+        }
+    }
+
+    private static String tree(String equation, Equation.ParserType parser) {
+        try {
+            return new Equation(equation, parser).getRoot().toString();
+        } catch (ArithmeticException e) {
+            return "error";
+        }
+    }
+
+    @Test
+    void sameTreeAsLegacy() throws IOException {
+        int compared = 0;
+        for (String equation : equations()) {
+            if (MINUS_AFTER_OPERATOR.matcher(equation).find())
+                continue;
+            assertEquals(tree(equation, Equation.ParserType.LEGACY), tree(equation, Equation.ParserType.PRECEDENCE), equation);
+            compared++;
+        }
+        assertTrue(compared > 500, "only " + compared + " equations compared");
+    }
+
+    @Test
+    void minusAfterOperator() {
+        assertEquals("{[root: \"root\"]: [{[comparison: \"=\"]: [[num: \"1\"], {[delOp: \"-\"]: [[num: \"2\"]]}]}]}",
+                tree("1=-2", Equation.ParserType.PRECEDENCE));
+        assertEquals("{[root: \"root\"]: [{[op: \"+\"]: [[num: \"1\"], {[delOp: \"-\"]: [[num: \"2\"]]}]}]}",
+                tree("1+-2", Equation.ParserType.PRECEDENCE));
+        assertEquals("{[root: \"root\"]: [{[op: \"\\cdot\"]: [[num: \"2\"], {[delOp: \"-\"]: [[num: \"3\"]]}]}]}",
+                tree("2\\cdot -3", Equation.ParserType.PRECEDENCE));
+        assertEquals("{[root: \"root\"]: [{[op: \"\\cdot\"]: [[num: \"2\"], {[delOp: \"\\div\"]: [{[delOp: \"-\"]: [[num: \"3\"]]}]}]}]}",
+                tree("2\\div -3", Equation.ParserType.PRECEDENCE));
+        assertNotEquals(tree("2\\cdot -3", Equation.ParserType.LEGACY), tree("2\\cdot -3", Equation.ParserType.PRECEDENCE));
+    }
+}
@@ -0,0 +1,75 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ActionTree;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Equations evaluated with a precision must give its digits, while the results a double holds exactly stay doubles.
+ */
+class PreciseEquationTest {
+    private static final MathContext MC = new MathContext(40);
+
+    @BeforeAll
+    static void register() {
+        Expression.registerExpressions();
+    }
+
+    private static Equation precise(String text) {
+        Equation equation = new Equation(text);
+        equation.setPrecision(MC);
+        return equation;
+    }
+
+    private static ActionTree evaluate(String text) {
+        return precise(text).evaluate();
+    }
+
+    @Test
+    void decimals() {
+        ActionTree sum = evaluate("0.1+0.2");
+        assertTrue(sum.value().isBig());
+        assertEquals("0.3", sum.toLatex());
+        assertEquals("{\\text{True}}", evaluate("0.1+0.2=0.3").toLatex());
+        assertEquals("{\\text{False}}", evaluate("0.1+0.2>0.3").toLatex());
+    }
+
+    @Test
+    void fractions() {
+        assertEquals("0.3333333333333333333333333333333333333333", evaluate("\\frac{1}{3}").toLatex());
+        assertEquals("0.6666666666666666666666666666666666666667", evaluate("\\frac{1}{3}+\\frac{1}{3}").toLatex());
+        assertEquals("0.3333333333333333333333333333333333333333", evaluate("\\frac{0.1}{0.3}").toLatex());
+    }
+
+    @Test
+    void greatestCommonDivisor() {
+        // 0.1 + 0.2 is the BigDecimal 0.3, which has the GCD 0.3 with 0.9
+        var steps = precise("\\frac{\\left(0.1+0.2\\right)x}{0.9}").simplifyExpression();
+        assertEquals("\\frac{x}{3}", steps.get(steps.size() - 1).step().toLatex());
+        assertTrue(steps.stream().anyMatch(step -> step.message().contains("dividing the numbers 0.9 and 0.3")));
+    }
+
+    @Test
+    void exactResultsStayDoubles() {
+        for (String text : new String[]{"0.5+0.25", "2\\cdot 3", "\\frac{6}{4}", "\\sin\\left(\\pi\\right)"}) {
+            assertFalse(evaluate(text).value().isBig(), text);
+        }
+        assertEquals("0.75", evaluate("0.5+0.25").toLatex());
+        assertEquals("1.5", evaluate("\\frac{6}{4}").toLatex());
+    }
+
+    @Test
+    void specialAngles() {
+        assertEquals("0.0", evaluate("\\sin\\left(\\pi\\right)").toLatex());
+        assertEquals("0.0", evaluate("\\cos\\left(\\frac{\\pi}{2}\\right)").toLatex());
+        assertEquals("0.5", evaluate("\\sin\\left(\\frac{\\pi}{6}\\right)").toLatex());
+        assertEquals("{\\text{True}}", evaluate("\\sin\\left(\\pi\\right)=0").toLatex());
+        assertEquals("Infinity", evaluate("\\csc\\left(\\pi\\right)").toLatex());
+    }
+}
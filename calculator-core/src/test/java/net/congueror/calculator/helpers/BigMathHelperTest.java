@@ -0,0 +1,71 @@
+package net.congueror.calculator.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The functions must give every digit of the precision, and the special angles their exact values like {@link MathHelper} does.
+ */
+class BigMathHelperTest {
+    private static final MathContext MC = new MathContext(40);
+    private static final BigDecimal PI = new BigDecimal("3.14159265358979323846264338327950288419716939937510582097494459");
+
+    private static void assertDigits(String expected, BigDecimal actual) {
+        assertEquals(new BigDecimal(expected), actual);
+    }
+
+    private static BigDecimal piOver(int n) {
+        return PI.divide(BigDecimal.valueOf(n), MC);
+    }
+
+    @Test
+    void constants() {
+        assertDigits("3.141592653589793238462643383279502884197", BigMathHelper.pi(MC));
+        assertDigits("2.718281828459045235360287471352662497757", BigMathHelper.e(MC));
+        assertDigits("3.1415926535897932384626", BigMathHelper.pi(new MathContext(23)));
+    }
+
+    @Test
+    void functions() {
+        assertDigits("0.8414709848078965066525023216302989996226", BigMathHelper.sin(BigDecimal.ONE, MC));
+        assertDigits("0.5403023058681397174009366074429766037323", BigMathHelper.cos(BigDecimal.ONE, MC));
+        assertDigits("1.557407724654902230506974807458360173087", BigMathHelper.tan(BigDecimal.ONE, MC).value().getAsBig());
+        assertDigits("0.4636476090008061162142562314612144020285", BigMathHelper.atan(new BigDecimal("0.5"), MC));
+        assertEquals(piOver(4), BigMathHelper.atan(BigDecimal.ONE, MC));
+        assertEquals(piOver(6), BigMathHelper.asin(new BigDecimal("0.5"), MC));
+        assertEquals(PI.divide(BigDecimal.valueOf(3), MC), BigMathHelper.acos(new BigDecimal("0.5"), MC));
+        assertEquals(PI.round(MC), BigMathHelper.acos(BigDecimal.ONE.negate(), MC));
+        assertNull(BigMathHelper.asin(new BigDecimal("1.5"), MC));
+    }
+
+    @Test
+    void specialAngles() {
+        BigDecimal pi = BigMathHelper.pi(MC);
+        assertEquals(BigDecimal.ZERO, BigMathHelper.sin(pi, MC));
+        assertEquals(BigDecimal.ZERO, BigMathHelper.sin(pi.multiply(BigDecimal.valueOf(-7)), MC));
+        assertEquals(BigDecimal.ZERO, BigMathHelper.cos(pi.divide(BigDecimal.valueOf(2), MC), MC));
+        assertEquals(BigDecimal.ONE.negate(), BigMathHelper.cos(pi, MC));
+        assertDigits("0.5", BigMathHelper.sin(pi.divide(BigDecimal.valueOf(6), MC), MC));
+        assertDigits("-0.5", BigMathHelper.sin(pi.divide(BigDecimal.valueOf(-6), MC), MC));
+        assertDigits("-0.5", BigMathHelper.cos(pi.multiply(BigDecimal.valueOf(2)).divide(BigDecimal.valueOf(3), MC), MC));
+        assertDigits("0.7071067811865475244008443621048490392848", BigMathHelper.sin(pi.divide(BigDecimal.valueOf(4), MC), MC));
+
+        // divided by the exact 0 like the doubles are
+        assertEquals(MathHelper.number(1 / MathHelper.sin(Math.PI)), BigMathHelper.csc(pi, MC));
+        assertEquals(MathHelper.number(1 / MathHelper.tan(Math.PI)), BigMathHelper.cot(pi, MC));
+        assertEquals(MathHelper.number(MathHelper.tan(Math.PI / 2)), BigMathHelper.tan(pi.divide(BigDecimal.valueOf(2), MC), MC));
+        assertEquals(MathHelper.number(0 / 0.0), BigMathHelper.divide(BigDecimal.ZERO, BigDecimal.ZERO, MC));
+    }
+
+    @Test
+    void nearSpecialAngles() {
+        // further from pi than the last two digits, the sine is not snapped to 0 but is 1E-30 less the error of pi
+        BigDecimal a = BigMathHelper.pi(MC).add(new BigDecimal("1E-30"));
+        assertDigits("-9.999999998E-31", BigMathHelper.sin(a, MC).round(new MathContext(10)));
+    }
+}
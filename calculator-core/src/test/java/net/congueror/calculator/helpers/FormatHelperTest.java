@@ -0,0 +1,79 @@
+package net.congueror.calculator.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link FormatHelper#appendRounded} must write exactly what DecimalFormat does.
+ */
+class FormatHelperTest {
+
+    private static String format(double value, int decimals) {
+        StringBuilder out = new StringBuilder();
+        FormatHelper.appendRounded(out, value, decimals);
+        return out.toString();
+    }
+
+    private static DecimalFormat decimalFormat(int decimals) {
+        return new DecimalFormat(decimals == 0 ? "#" : "#." + "#".repeat(decimals), DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+    }
+
+    private static void assertLikeDecimalFormat(double... values) {
+        DecimalFormat expected = decimalFormat(2);
+        for (double value : values) {
+            assertEquals(expected.format(value), format(value, 2), () -> "for " + value);
+        }
+    }
+
+    @Test
+    void ties() {
+        assertLikeDecimalFormat(0.5, 1.5, 2.5, 0.125, 0.375, 0.135, 0.145, 0.005, 0.015, 2.675, 9.995, 99.995,
+                1.005, 17592186044416.125, 100.125, 3.375);
+    }
+
+    @Test
+    void negatives() {
+        assertLikeDecimalFormat(-0.0, -0.001, -0.004, -0.005, -0.0049999, -1e-20, -0.5, -2.5, -1.125, -1234567.891);
+    }
+
+    @Test
+    void nearTwoToThe51() {
+        double limit = 0x1p51 / 100;
+        assertLikeDecimalFormat(limit, Math.nextDown(limit), Math.nextUp(limit), limit + 0.005, limit - 0.005,
+                0x1p51, 0x1p52 + 1, 0x1p53, 2.25e13, 2.2517998136852485E13, 1e20, 1e23, 1.2345678901234568E29,
+                Double.MAX_VALUE);
+    }
+
+    @Test
+    void specialValues() {
+        assertLikeDecimalFormat(Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.0,
+                Double.MIN_VALUE, -Double.MIN_VALUE);
+    }
+
+    @Test
+    void randomValues() {
+        Random random = new Random(7);
+        for (int decimals = 0; decimals <= 8; decimals++) {
+            DecimalFormat expected = decimalFormat(decimals);
+            for (int i = 0; i < 20_000; i++) {
+                double value = switch (random.nextInt(5)) {
+                    case 0 -> random.nextDouble() * Math.pow(10, random.nextInt(40) - 10);
+                    case 1 -> random.nextInt(2_000_000) / 1000.0;
+                    case 2 -> random.nextInt(100_000) + 0.005 * (2 * random.nextInt(1000) + 1);
+                    case 3 -> (random.nextInt(1_000_000) + 0.5) / 100 * Math.pow(10, random.nextInt(20));
+                    default -> Double.longBitsToDouble(random.nextLong());
+                };
+                if (random.nextBoolean())
+                    value = -value;
+                double v = value;
+                assertEquals(expected.format(v), format(v, decimals), () -> "for " + v);
+            }
+        }
+    }
+}
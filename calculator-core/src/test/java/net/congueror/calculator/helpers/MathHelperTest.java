@@ -0,0 +1,67 @@
+package net.congueror.calculator.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The reduced sine and cosine must stay within 2 ulp of StrictMath, whichever reduction the argument takes.
+ */
+class MathHelperTest {
+    private static final double MAX_ULPS = 2;
+
+    /**
+     * A remainder within 1e-14 of a multiple of pi gives an exact 0, like sin(pi) does.
+     */
+    private static boolean close(double actual, double expected) {
+        return Math.abs(actual - expected) <= MAX_ULPS * Math.ulp(expected) || actual == 0 && Math.abs(expected) < 1e-14;
+    }
+
+    private static void assertClose(double a) {
+        double sin = MathHelper.sin(a);
+        double cos = MathHelper.cos(a);
+        assertTrue(close(sin, StrictMath.sin(a)), () -> "sin of " + a + " is " + sin + ", not " + StrictMath.sin(a));
+        assertTrue(close(cos, StrictMath.cos(a)), () -> "cos of " + a + " is " + cos + ", not " + StrictMath.cos(a));
+    }
+
+    @Test
+    void quadrants() {
+        Random random = new Random(7);
+        for (int quadrant = -16; quadrant <= 16; quadrant++) {
+            for (int i = 0; i < 2000; i++) {
+                // away from the multiples of pi / 12, which are snapped to their exact values
+                double offset = (random.nextInt(3) - 1) * Math.PI / 12 + (random.nextDouble() - 0.5) * Math.PI / 13;
+                if (Math.abs(offset % (Math.PI / 12)) > 1e-12)
+                    assertClose(quadrant * Math.PI / 2 + offset);
+            }
+        }
+    }
+
+    @Test
+    void everyMagnitude() {
+        Random random = new Random(7);
+        for (int exponent = -20; exponent <= Double.MAX_EXPONENT; exponent++) {
+            for (int i = 0; i < 200; i++) {
+                double a = Math.scalb(1 + random.nextDouble(), exponent);
+                assertClose(a);
+                assertClose(-a);
+            }
+        }
+    }
+
+    @Test
+    void hugeArguments() {
+        assertClose(Double.MAX_VALUE);
+        assertClose(-Double.MAX_VALUE);
+        assertClose(0x1p19 * Math.PI);
+        assertClose(Math.nextDown(0x1p19 * Math.PI));
+        assertClose(1e22);
+        // the double closest to a multiple of pi / 2
+        assertClose(Math.scalb(6381956970095103d, 797));
+        for (long multiple = 1; multiple < 1L << 40; multiple = multiple * 3 + 1) {
+            assertClose(multiple * (Math.PI / 2));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package net.congueror.calculator.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RationalTest {
+
+    /**
+     * @return the digits of the number, its exact value for a whole number.
+     */
+    private static BigDecimal decimal(double d) {
+        return d == Math.rint(d) ? new BigDecimal(d) : BigDecimal.valueOf(d);
+    }
+
+    /**
+     * @return d1 / d2 reduced with BigInteger only, as numerator and denominator with the sign on the numerator.
+     */
+    private static BigInteger[] reduced(double d1, double d2) {
+        BigDecimal a = decimal(d1);
+        BigDecimal b = decimal(d2);
+        int scale = Math.max(Math.max(a.scale(), b.scale()), 0);
+        BigInteger num = a.movePointRight(scale).toBigIntegerExact();
+        BigInteger den = b.movePointRight(scale).toBigIntegerExact();
+        BigInteger gcd = num.gcd(den);
+        if (den.signum() < 0)
+            gcd = gcd.negate();
+        return new BigInteger[]{num.divide(gcd), den.divide(gcd)};
+    }
+
+    private static void assertDivides(double d1, double d2) {
+        Rational ratio = Rational.valueOf(d1).divide(Rational.valueOf(d2));
+        BigInteger[] expected = reduced(d1, d2);
+        assertEquals(expected[0].doubleValue(), ratio.numeratorValue(), () -> d1 + " / " + d2);
+        assertEquals(expected[1].doubleValue(), ratio.denominatorValue(), () -> d1 + " / " + d2);
+    }
+
+    @Test
+    void gcd() {
+        assertEquals(0, Rational.gcd(0, 0));
+        assertEquals(7, Rational.gcd(0, 7));
+        assertEquals(7, Rational.gcd(7, 0));
+        assertEquals(1, Rational.gcd(1, Long.MAX_VALUE));
+        assertEquals(1L << 61, Rational.gcd(1L << 62, 3L << 61));
+        assertEquals(6, Rational.gcd(12, 18));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long common = 1 + random.nextInt(1 << random.nextInt(31));
+            long a = (random.nextLong() >>> 1) / common * common;
+            long b = (random.nextLong() >>> 1 + random.nextInt(63)) / common * common;
+            assertEquals(BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValueExact(), Rational.gcd(a, b), () -> "gcd of " + a + " and " + b);
+        }
+    }
+
+    @Test
+    void decimals() {
+        assertEquals(0, Rational.decimals(12));
+        assertEquals(1, Rational.decimals(0.1));
+        assertEquals(2, Rational.decimals(-0.35));
+        assertEquals(14, Rational.decimals(0.12345678901234));
+        assertEquals(-1, Rational.decimals(1e-15));
+        assertEquals(-1, Rational.decimals(Math.PI));
+        assertEquals(35, Rational.unscaled(0.35, 2));
+        assertEquals(Rational.INEXACT, Rational.unscaled(0.35, 1));
+        assertNull(Rational.valueOf(Math.PI));
+        assertNull(Rational.valueOf(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void divideInLongs() {
+        assertDivides(6, 8);
+        assertDivides(-0.5, 0.25);
+        assertDivides(0.35, -1.4);
+        assertDivides(12, 1);
+        assertThrows(ArithmeticException.class, () -> Rational.valueOf(1).divide(Rational.valueOf(0)));
+    }
+
+    @Test
+    void divideOverflowingToBigInteger() {
+        // the cross products of 14 decimal numbers overflow a long
+        assertDivides(0.12345678901234, 0.98765432109877);
+        assertDivides(-987654.32109876, 0.00000000000007);
+        // whole numbers beyond a long
+        assertDivides(1e20, 3e19);
+        assertDivides(1e300, 7);
+        assertDivides(-0x1p63, -1);
+        assertDivides(-0x1p63, 3);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            double d1 = random.nextLong() / Math.pow(10, random.nextInt(15)) / 1e5;
+            double d2 = random.nextLong() / Math.pow(10, random.nextInt(15)) / 1e5;
+            if (Rational.valueOf(d1) != null && Rational.valueOf(d2) != null && d2 != 0)
+                assertDivides(d1, d2);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.congueror.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding the steps of a derivation as the records of {@link StepWriter} against the script the page used to evaluate,
+ * which built every step by text replacement. The steps are made and their LaTeX is written once before measuring,
+ * so both only pay for the encoding. The sizes of both payloads are printed by the setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadBenchmark {
+    private static final String TITLE = "Simplify Expression:";
+
+    /**
+     * The amount of terms of the sum, 60 give 121 steps and 200 give 401.
+     */
+    @Param({"3", "60", "200"})
+    public int terms;
+
+    private List<OperationStep> steps;
+
+    @Setup
+    public void setup() {
+        Expression.registerExpressions();
+        StringBuilder ltx = new StringBuilder();
+        for (int i = 1; i <= terms; i++) {
+            ltx.append(i > 1 ? "+" : "").append("\\sin\\left(").append(i).append("\\right)\\cdot \\left(x+")
+                    .append(i).append("\\cdot 2\\right)");
+        }
+        steps = new Equation(ltx.toString()).simplifyExpression();
+        System.err.printf("%n%d steps, script %d chars, records %d chars%n", steps.size(), script().length(), records().length());
+    }
+
+    @Benchmark
+    public String records() {
+        StepWriter writer = new StepWriter();
+        StringJoiner payload = new StringJoiner(",", "[", "]");
+        payload.add(StepWriter.START);
+        payload.add(writer.section(TITLE));
+        for (OperationStep step : steps) {
+            payload.add(writer.step(step));
+        }
+        payload.add(StepWriter.END);
+        return payload.toString();
+    }
+
+    @Benchmark
+    public String script() {
+        StringBuilder eval = new StringBuilder();
+        eval.append(writeJS("""
+                var area = document.getElementById("area");
+                area.innerHTML = "";
+                """));
+        eval.append(writeJS("""
+                area.innerHTML += "<b id='text'>!@#1</b> <br>";
+                """, TITLE));
+        for (OperationStep step : steps) {
+            eval.append(writeJS("""
+                    operationStep(area, "!@#3 !@#1", "!@#2");
+                    """, step.step().toLatex(), step.message(), step.prefix().value()));
+        }
+        return eval.append("area.innerHTML += \"<br>\"").toString();
+    }
+
+    /**
+     * The replacement the script used to be written with, before {@link StepWriter}.
+     */
+    private static String writeJS(String code, Object... objs) {
+        String processed = code.replaceAll("\n", "");
+        for (int i = 1; i <= objs.length; i++) {
+            String obj = objs[i - 1].toString().replace("\\", "\\\\");
+            processed = processed.replace("!@#" + i, obj);
+        }
+        return processed;
+    }
+}
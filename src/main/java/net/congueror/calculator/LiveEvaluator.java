@@ -0,0 +1,135 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.structure.ActionTree;
+import net.congueror.calculator.structure.TokenType;
+import org.cef.callback.CefQueryCallback;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the expression of the live mode while it is being typed, answering each request with a preview of the result.
+ * Edits that follow each other within the debounce delay are coalesced into one evaluation of the newest text,
+ * the requests they replace are failed with {@link #SUPERSEDED} before they reach {@link Equation},
+ * and an evaluation whose text has been edited since is interrupted.
+ * Every evaluation runs on the single thread of the executor, which is the only one to use the incremental parser.
+ */
+final class LiveEvaluator {
+    static final int SUPERSEDED = -3;
+    private static final long DEBOUNCE_MILLIS = 20;
+
+    private final ScheduledExecutorService executor;
+    private final IncrementalEquation incremental = new IncrementalEquation();
+    private Request pending;
+    private Request running;
+    private Thread runner;
+    private ScheduledFuture<?> scheduled;
+    private String lastEquation;
+    private String lastPreview;
+
+    LiveEvaluator(ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Replaces the pending request and restarts the debounce delay.
+     */
+    synchronized void submit(long id, String equation, CefQueryCallback callback) {
+        if (pending != null)
+            pending.callback.failure(SUPERSEDED, "Superseded by a newer edit.");
+        pending = new Request(id, equation, callback);
+
+        if (running != null && !running.equation.equals(equation))
+            runner.interrupt();
+        if (scheduled != null)
+            scheduled.cancel(false);
+        scheduled = executor.schedule(this::evaluate, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops the request, the callback of a canceled query is not used anymore.
+     */
+    synchronized void cancel(long id) {
+        if (pending != null && pending.id == id)
+            pending = null;
+        if (running != null && running.id == id) {
+            running.canceled = true;
+            runner.interrupt();
+        }
+    }
+
+    private void evaluate() {
+        Request request;
+        synchronized (this) {
+            request = pending;
+            if (request == null)
+                return;
+            pending = null;
+            running = request;
+            runner = Thread.currentThread();
+        }
+
+        String preview = null;
+        String error = null;
+        try {
+            preview = request.equation.equals(lastEquation) ? lastPreview : preview(request.equation);
+            lastEquation = request.equation;
+            lastPreview = preview;
+        } catch (ArithmeticException e) {
+            error = e.getMessage();
+        } catch (CancellationException e) {
+            // answered below, the interrupt is still set
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            error = "Could not calculate the equation.";
+        } finally {
+            // nothing can interrupt this thread for the request anymore, whatever stopped it
+            synchronized (this) {
+                running = null;
+                runner = null;
+            }
+        }
+
+        boolean stale = Thread.interrupted();
+        synchronized (this) {
+            if (request.canceled)
+                return;
+            if (stale)
+                request.callback.failure(SUPERSEDED, "Superseded by a newer edit.");
+            else if (error != null)
+                request.callback.failure(-1, error);
+            else
+                request.callback.success(preview);
+        }
+    }
+
+    /**
+     * @return the LaTeX of the result with the sign the last step of the equation would show before it.
+     */
+    private String preview(String equation) {
+        Equation eq = incremental.update(equation);
+        ActionTree result = eq.evaluate();
+        String prefix = "\\implies ";
+        if (eq.getActions().contains(Equation.EquationActions.SIMPLIFY))
+            prefix = result.value().is(TokenType.NUM) ? "\\approx " : "= ";
+
+        StringBuilder ltx = new StringBuilder(prefix);
+        result.toLatex(ltx);
+        return ltx.toString();
+    }
+
+    private static final class Request {
+        private final long id;
+        private final String equation;
+        private final CefQueryCallback callback;
+        private boolean canceled;
+
+        private Request(long id, String equation, CefQueryCallback callback) {
+            this.id = id;
+            this.equation = equation;
+            this.callback = callback;
+        }
+    }
+}
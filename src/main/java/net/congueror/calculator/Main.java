@@ -1,6 +1,5 @@
 package net.congueror.calculator;
 
-import net.congueror.calculator.helpers.JSHelper;
 import net.congueror.calculator.util.ContextMenuHandler;
 import org.cef.CefApp;
 import org.cef.CefClient;
@@ -11,16 +10,55 @@ import org.cef.browser.CefMessageRouter;
 import org.cef.callback.CefQueryCallback;
 import org.cef.handler.CefAppHandlerAdapter;
 import org.cef.handler.CefMessageRouterHandler;
+import org.cef.handler.CefMessageRouterHandlerAdapter;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class Main extends JFrame {
 
     private static CefBrowser browser;
+    private static final EquationCache CACHE = new EquationCache(256, 16L << 20);
+    private static final int WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int QUEUE_CAPACITY = 32;
+    /**
+     * Calculates the queries off the message router thread, so a slow equation never blocks the browser.
+     * Queries beyond the free workers and the queue are rejected instead of piling up.
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(WORKERS, WORKERS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), new WorkerFactory("calculator-worker-"));
+    /**
+     * Sends the steps of persistent queries, one thread for every query that is being streamed.
+     */
+    private static final ExecutorService SENDERS = Executors.newCachedThreadPool(new WorkerFactory("calculator-sender-"));
+    private static final LiveEvaluator LIVE = new LiveEvaluator(Executors.newSingleThreadScheduledExecutor(new WorkerFactory("calculator-live-")));
+    private static final AtomicLong REJECTED = new AtomicLong();
+    /**
+     * Running and queued queries by their id, so that a canceled query can interrupt its calculation.
+     */
+    private static final Map<Long, Future<?>> QUERIES = new ConcurrentHashMap<>();
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
 
     public static void main(String[] args) {
         if (!CefApp.startup(args)) {
@@ -92,6 +130,10 @@ public class Main extends JFrame {
             @Override
             public void onQueryCanceled(CefBrowser browser, CefFrame frame, long query_id) {
                 //System.out.println("Cancel query:"+query_id);
+                // whoever removes the query owns its callback, see onQuery
+                Future<?> query = QUERIES.remove(query_id);
+                if (query != null)
+                    query.cancel(true);
             }
 
             @Override
@@ -99,45 +141,152 @@ public class Main extends JFrame {
                                    CefQueryCallback callback) {
                 //System.out.println("request:"+request+"\nquery_id:"+query_id+"\npersistent:"+persistent);
 
+                // a query is answered only by whoever removes it from QUERIES, the calculation or the cancellation
+                // a persistent query stays there until its sender is done, cancelling it cancels the stream too
+                StepStream stream = persistent ? new StepStream(callback) : null;
+                FutureTask<Void> query = new FutureTask<>(() -> {
+                    try {
+                        if (stream != null) {
+                            SENDERS.execute(() -> {
+                                try {
+                                    stream.run();
+                                } finally {
+                                    QUERIES.remove(query_id);
+                                }
+                            });
+                            Main.this.stream(request, stream);
+                        } else {
+                            String result = Main.this.calculate(request);
+                            if (QUERIES.remove(query_id) != null)
+                                callback.success(result);
+                        }
+                    } catch (ArithmeticException e) {
+                        e.printStackTrace();
+                        fail(query_id, callback, stream, e.getMessage());
+                    } catch (CancellationException e) {
+                        // the browser dropped the query, which already cancelled its stream
+                    } catch (RuntimeException e) {
+                        // the future would swallow it and leave the page waiting for an answer
+                        e.printStackTrace();
+                        fail(query_id, callback, stream, "Could not calculate the equation.");
+                    } finally {
+                        // ends the sender of a calculation that stopped without closing its stream
+                        if (stream != null)
+                            stream.finish();
+                        else
+                            QUERIES.remove(query_id);
+                    }
+                }, null) {
+                    @Override
+                    public boolean cancel(boolean mayInterruptIfRunning) {
+                        if (stream != null)
+                            stream.cancel();
+                        return super.cancel(mayInterruptIfRunning);
+                    }
+                };
+
+                QUERIES.put(query_id, query);
                 try {
-                    request = Main.this.calculate(request);
-                } catch (ArithmeticException e) {
-                    e.printStackTrace();
-                    callback.failure(-1, e.getMessage());
-                    return false;
+                    EXECUTOR.execute(query);
+                } catch (RejectedExecutionException e) {
+                    QUERIES.remove(query_id);
+                    long rejected = REJECTED.incrementAndGet();
+                    System.out.println("Rejected query " + query_id + ", " + poolStats() + ", rejected=" + rejected);
+                    callback.failure(-2, "The calculator is busy, try again later.");
                 }
-
-                System.out.println(request);
-                callback.success(request);
                 return true;
             }
         }, true);
         client.addMessageRouter(cmr);
+
+        // previews of the live mode, coalesced and evaluated one at a time
+        CefMessageRouter live = CefMessageRouter.create(new CefMessageRouter.CefMessageRouterConfig("javaPreview", "javaPreviewCancel"));
+        live.addHandler(new CefMessageRouterHandlerAdapter() {
+            @Override
+            public boolean onQuery(CefBrowser browser, CefFrame frame, long query_id, String request, boolean persistent,
+                                   CefQueryCallback callback) {
+                LIVE.submit(query_id, request, callback);
+                return true;
+            }
+
+            @Override
+            public void onQueryCanceled(CefBrowser browser, CefFrame frame, long query_id) {
+                LIVE.cancel(query_id);
+            }
+        }, true);
+        client.addMessageRouter(live);
     }
 
+    /**
+     * Fails the query, through the stream of a persistent query so that the failure follows what was already sent.
+     * Any other query is failed only if it was not cancelled.
+     */
+    private static void fail(long query_id, CefQueryCallback callback, StepStream stream, String message) {
+        if (stream != null)
+            stream.fail(message);
+        else if (QUERIES.remove(query_id) != null)
+            callback.failure(-1, message);
+    }
+
+    /**
+     * @return the number of running and queued calculations, for logging.
+     */
+    public static String poolStats() {
+        return "active=" + EXECUTOR.getActiveCount() + "/" + EXECUTOR.getMaximumPoolSize()
+                + ", queued=" + EXECUTOR.getQueue().size() + "/" + QUEUE_CAPACITY;
+    }
+
+    /**
+     * @return the JSON payload of all the steps, see {@link StepWriter}.
+     */
     public String calculate(String equation) {
-        Equation eq = new Equation(equation);
+        Equation eq = CACHE.get(equation);
         var actions = eq.getActions();
-        var eval = new StringBuilder();
-        eval.append(JSHelper.writeJS("""
-                var area = document.getElementById("area");
-                area.innerHTML = "";
-                """));
+        var writer = new StepWriter();
+        var payload = new StringJoiner(",", "[", "]");
+        payload.add(StepWriter.START);
 
         for (Equation.EquationActions action : actions) {
             if (action.equals(Equation.EquationActions.SIMPLIFY))
-                simplify(eval, eq);
+                simplify(payload, writer, eq);
             else if (action.equals(Equation.EquationActions.COMPARE))
-                compare(eval, eq);
+                compare(payload, writer, eq);
             else if (action.equals(Equation.EquationActions.SOLVE))
-                solve(eval, eq);
-            eval.append("area.innerHTML += \"<br>\"");
+                solve(payload, writer, eq);
         }
 
-        return eval.toString();
+        payload.add(StepWriter.END);
+        return payload.toString();
+    }
+
+    /**
+     * Streams the steps of the equation to the page while they are being made, the page renders each as it arrives.
+     */
+    public void stream(String equation, StepStream stream) {
+        Equation eq = CACHE.get(equation);
+        var writer = new StepWriter();
+        stream.add(StepWriter.START);
+
+        Consumer<OperationStep> steps = step -> stream.add(writer.step(step));
+        for (Equation.EquationActions action : eq.getActions()) {
+            OperationStep beginning = null;
+            if (action.equals(Equation.EquationActions.SIMPLIFY)) {
+                stream.add(writer.section("Simplify Expression:"));
+                beginning = eq.simplifyExpression(steps);
+            } else if (action.equals(Equation.EquationActions.COMPARE)) {
+                stream.add(writer.section("Compare Expression:"));
+                beginning = eq.compareExpression(steps);
+            } else if (action.equals(Equation.EquationActions.SOLVE)) {
+                stream.add(writer.section("Solve Equation:"));
+                beginning = eq.solveEquation(steps);
+            }
+            if (beginning != null)
+                stream.add(writer.first(beginning));
+        }
+        stream.close();
     }
 
-    private void simplify(StringBuilder eval, Equation eq) {
+    private void simplify(StringJoiner payload, StepWriter writer, Equation eq) {
         var steps = eq.simplifyExpression();
 
         AtomicInteger yes = new AtomicInteger(0);
@@ -147,18 +296,13 @@ public class Main extends JFrame {
             yes.incrementAndGet();
         });
 
-        eval.append(JSHelper.writeJS("""
-                area.innerHTML += "<b id='text'>Simplify Expression:</b> <br>";
-                """));
+        payload.add(writer.section("Simplify Expression:"));
         for (OperationStep step : steps) {
-            String js = JSHelper.writeJS("""
-                    operationStep(area, "!@#3 !@#1", "!@#2");
-                    """, step.step().toLatex(), step.message(), step.prefix().value());
-            eval.append(js);
+            payload.add(writer.step(step));
         }
     }
 
-    private void compare(StringBuilder eval, Equation eq) {
+    private void compare(StringJoiner payload, StepWriter writer, Equation eq) {
         var steps = eq.compareExpression();
 
         AtomicInteger yes = new AtomicInteger(0);
@@ -168,18 +312,13 @@ public class Main extends JFrame {
             yes.incrementAndGet();
         });
 
-        eval.append(JSHelper.writeJS("""
-                area.innerHTML += "<b id='text'>Compare Expression:</b> <br>";
-                """));
+        payload.add(writer.section("Compare Expression:"));
         for (OperationStep step : steps) {
-            String js = JSHelper.writeJS("""
-                    operationStep(area, "!@#3 !@#1", "!@#2");
-                    """, step.step().toLatex(), step.message(), step.prefix().value());
-            eval.append(js);
+            payload.add(writer.step(step));
         }
     }
 
-    private void solve(StringBuilder eval, Equation eq) {
+    private void solve(StringJoiner payload, StepWriter writer, Equation eq) {
         var steps = eq.solveEquation();
 
         AtomicInteger yes = new AtomicInteger(0);
@@ -189,14 +328,25 @@ public class Main extends JFrame {
             yes.incrementAndGet();
         });
 
-        eval.append(JSHelper.writeJS("""
-                area.innerHTML += "<b id='text'>Solve Equation:</b> <br>";
-                """));
+        payload.add(writer.section("Solve Equation:"));
         for (OperationStep step : steps) {
-            String js = JSHelper.writeJS("""
-                    operationStep(area, "!@#3 !@#1", "!@#2");
-                    """, step.step().toLatex(), step.message(), step.prefix().value());
-            eval.append(js);
+            payload.add(writer.step(step));
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private WorkerFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 }
@@ -0,0 +1,121 @@
+package net.congueror.calculator;
+
+import org.cef.callback.CefQueryCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the records of a persistent query to the page while the equation is still being calculated.
+ * The calculating thread adds the record of every step to a bounded buffer, see {@link StepWriter}, a sender thread
+ * sends everything buffered as one payload at most once per frame. Once the buffer is full the calculation waits
+ * for the sender, so a long derivation never holds more than the buffer and never floods the page with messages.
+ */
+final class StepStream implements Runnable {
+    static final int CAPACITY = 256;
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final BlockingQueue<String> buffer = new ArrayBlockingQueue<>(CAPACITY);
+    private final CefQueryCallback callback;
+    private volatile boolean cancelled;
+    private volatile boolean closed;
+    private volatile String failure;
+
+    StepStream(CefQueryCallback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Buffers the record, waiting while the buffer is full.
+     *
+     * @throws CancellationException if the thread is interrupted while waiting.
+     */
+    void add(String record) {
+        try {
+            buffer.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The stream was interrupted");
+        }
+    }
+
+    /**
+     * Ends the stream after what is still buffered has been sent, the page cancels the query once it reads the end.
+     */
+    void close() {
+        add(StepWriter.END);
+        closed = true;
+    }
+
+    /**
+     * Drops what is still buffered and fails the query once the payload being sent is done,
+     * unless the query was cancelled before.
+     */
+    synchronized void fail(String message) {
+        if (!cancelled)
+            failure = message;
+        cancel();
+    }
+
+    /**
+     * Drops what is still buffered and stops the sender, also after the stream was closed.
+     * Once this returns the callback is not used anymore, except to fail the query after {@link #fail}.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        buffer.clear();
+        buffer.offer(StepWriter.END);
+    }
+
+    /**
+     * Called once the calculation returned, cancels a stream it stopped without closing so that the sender ends.
+     */
+    void finish() {
+        if (!closed)
+            cancel();
+    }
+
+    /**
+     * Sends the first record as soon as it is added, and after that whatever was buffered during the last frame.
+     * The end is told apart from the other records by identity.
+     */
+    @Override
+    public void run() {
+        List<String> records = new ArrayList<>(CAPACITY);
+        StringJoiner payload = new StringJoiner(",", "[", "]");
+        long next = System.nanoTime();
+        try {
+            boolean ended = false;
+            while (!ended) {
+                records.add(buffer.take());
+                long wait = next - System.nanoTime();
+                if (wait > 0)
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                buffer.drainTo(records);
+
+                for (String record : records) {
+                    ended |= record == StepWriter.END;
+                    payload.add(record);
+                }
+                synchronized (this) {
+                    if (cancelled) {
+                        if (failure != null)
+                            callback.failure(-1, failure);
+                        return;
+                    }
+                    callback.success(payload.toString());
+                }
+                next = System.nanoTime() + FRAME_NANOS;
+                records.clear();
+                payload = new StringJoiner(",", "[", "]");
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+        }
+    }
+}
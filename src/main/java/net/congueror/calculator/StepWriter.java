@@ -0,0 +1,64 @@
+package net.congueror.calculator;
+
+import net.congueror.calculator.helpers.JSHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the records of the JSON payload that {@code renderSteps} in calculator.js renders. A payload is an array of
+ * records and every record is an array that starts with its kind:
+ * <pre>
+ * ["start"]                        clears the result area
+ * ["section", title]               starts the steps of an action
+ * ["message", html]                defines the next message
+ * ["step", prefix, latex, message] a step, its message is the index of a message defined before, -1 for none
+ * ["first", latex]                 replaces the first step of the section once the result is known
+ * ["end"]                          ends the payload, the last one of a stream
+ * </pre>
+ * Messages repeat a lot across the steps, so each text is only sent once.
+ */
+final class StepWriter {
+    static final String START = "[\"start\"]";
+    static final String END = "[\"end\"]";
+
+    private final Map<String, Integer> messages = new HashMap<>();
+    private final StringBuilder record = new StringBuilder();
+
+    String section(String title) {
+        record.setLength(0);
+        record.append("[\"section\",");
+        JSHelper.appendString(record, title);
+        return record.append(']').toString();
+    }
+
+    /**
+     * @return the step record, preceded by the record of its message if that was not sent before.
+     */
+    String step(OperationStep step) {
+        record.setLength(0);
+        int message = -1;
+        if (!step.message().isEmpty()) {
+            Integer id = messages.get(step.message());
+            if (id == null) {
+                id = messages.size();
+                messages.put(step.message(), id);
+                record.append("[\"message\",");
+                JSHelper.appendString(record, step.message()).append("],");
+            }
+            message = id;
+        }
+
+        record.append("[\"step\",");
+        JSHelper.appendString(record, step.prefix().value()).append(',');
+        JSHelper.appendString(record, step.step().toLatex());
+        return record.append(',').append(message).append(']').toString();
+    }
+
+    String first(OperationStep step) {
+        record.setLength(0);
+        record.append("[\"first\",");
+        JSHelper.appendString(record, step.step().toLatex());
+        return record.append(']').toString();
+    }
+}
@@ -1,15 +1,30 @@
 package net.congueror.calculator.helpers;
 
 public final class JSHelper {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     private JSHelper() {}
 
-    public static String writeJS(String code, Object... objs) {
-        String processed = code.replaceAll("\n", "");
-        for (int i = 1; i <= objs.length; i++) {
-            String obj = objs[i - 1].toString().replace("\\", "\\\\");
-            processed = processed.replace("!@#" + i, obj);
+    /**
+     * Appends the text as a JSON string literal, quoted and with quotes, backslashes and control characters escaped.
+     */
+    public static StringBuilder appendString(StringBuilder out, CharSequence text) {
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c < ' ') {
+                out.append(text, start, i).append('\\');
+                switch (c) {
+                    case '"', '\\' -> out.append(c);
+                    case '\n' -> out.append('n');
+                    case '\r' -> out.append('r');
+                    case '\t' -> out.append('t');
+                    default -> out.append("u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                }
+                start = i + 1;
+            }
         }
-        return processed;
+        return out.append(text, start, text.length()).append('"');
     }
-}
\ No newline at end of file
+}
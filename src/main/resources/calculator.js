@@ -3,6 +3,9 @@ for (let i = 0; i < elements.length; i++) {
 }
 
 let eq = "";
+let query = 0;
+let live = false;
+let previewMathField = MQ.StaticMath(document.getElementById("preview"));
 let answerSpan = document.getElementById("input");
 let answerMathField = MQ.MathField(answerSpan, {
     //spaceBehavesLikeTab: true;
@@ -10,6 +13,8 @@ let answerMathField = MQ.MathField(answerSpan, {
     handlers: {
         edit: function () {
             eq = answerMathField.latex(); // Get entered math in LaTeX format
+            if (live)
+                requestPreview();
         }
     }
 });
@@ -22,17 +27,87 @@ function onAddButtonClick(latex) {
     answerMathField.focus();
 }
 
+function onLiveModeChange(checked) {
+    live = checked;
+    if (live)
+        requestPreview();
+    else
+        previewMathField.latex("");
+}
+
+// Sent on every edit, the calculator coalesces them and fails the ones it skips with -3.
+function requestPreview() {
+    if (eq === "") {
+        previewMathField.latex("");
+        return;
+    }
+    window.javaPreview({
+        request: eq,
+        persistent: false,
+        onSuccess: function(response) {
+            if (live)
+                previewMathField.latex(response);
+        },
+        onFailure: function(error_code, error_message) {
+            if (error_code !== -3)
+                previewMathField.latex("");
+        }
+    });
+}
+
 function onGoButtonClick() {
     if (eq !== "") {
-        window.java({
+        // a newer request replaces the one still being calculated
+        if (query !== 0)
+            window.javaCancel(query);
+        // the steps arrive while they are being made, the query stays open until the last one
+        let id = query = window.java({
             request: eq,
-            persistent: false,
+            persistent: true,
             onSuccess: function(response) {
-                generate(response);
+                // a payload still on its way for a replaced request must not render into the new list
+                if (query !== id)
+                    return;
+                if (renderSteps(response)) {
+                    query = 0;
+                    window.javaCancel(id);
+                }
             },
             onFailure: function(error_code, error_message) {
+                if (query === id)
+                    query = 0;
                 alert(error_code + ": " + error_message);
             }
         });
     }
-}
\ No newline at end of file
+}
+
+// Renders a payload of step records written by StepWriter, returns true once the last payload of the query arrived.
+function renderSteps(response) {
+    let ended = false;
+    for (const record of JSON.parse(response)) {
+        switch (record[0]) {
+            case "start":
+                startSteps();
+                break;
+            case "section":
+                addSection(record[1]);
+                break;
+            case "message":
+                messages.push(record[1]);
+                break;
+            case "step":
+                addStep(record[1] + " " + record[2], record[3] >= 0 ? messages[record[3]] : "");
+                break;
+            case "first":
+                replaceFirstStep(" " + record[1]);
+                break;
+            case "end":
+                endSteps();
+                ended = true;
+                break;
+        }
+    }
+    renderMath();
+    return ended;
+}
@@ -1,4 +1,4 @@
-function generate(input) {
+function getArea() {
     if (document.getElementById("area") == null) {
         const area = document.createElement("div");
         area.width = window.innerWidth - 26;
@@ -6,11 +6,56 @@ function generate(input) {
         area.id = "area"
         document.getElementById("generated").appendChild(area);
     }
+    return document.getElementById("area");
+}
+
+// Steps are appended as nodes, so the math rendered before them is never parsed again.
+let section = null;
+let firstStep = null;
+let messages = [];
+let rendered = 0;
+
+function startSteps() {
+    getArea().innerHTML = "";
+    section = null;
+    firstStep = null;
+    messages = [];
+    rendered = elements.length;
+}
+
+function addSection(title) {
+    section = document.createElement("div");
+    section.innerHTML = "<b id='text'>" + title + "</b> <br>";
+    getArea().appendChild(section);
+    firstStep = null;
+}
 
-    eval(input);
+function addStep(math, message) {
+    section.insertAdjacentHTML("beforeend", "<br>" +
+        (message !== "" ? "<div id='text1'> " + message + "</div>" : ""));
+
+    let stepByStep = document.createElement("mth-f");
+    stepByStep.id = "stepByStep";
+    stepByStep.textContent = math;
+    section.appendChild(stepByStep);
+    section.appendChild(document.createElement("br"));
+
+    if (firstStep == null)
+        firstStep = stepByStep;
+}
 
-    for (let i = 0; i < elements.length; i++) {
-        MQ.StaticMath(elements[i]);
+function replaceFirstStep(math) {
+    MQ.StaticMath(firstStep).latex(math);
+}
+
+function endSteps() {
+    getArea().appendChild(document.createElement("br"));
+}
+
+// Renders the math added since the last call.
+function renderMath() {
+    for (; rendered < elements.length; rendered++) {
+        MQ.StaticMath(elements[rendered]);
     }
 }
 
@@ -149,15 +194,3 @@ function drawGrid(ctx, axes) {
 
     ctx.globalAlpha = 1.0
 }
-
-function operationStep(area, math, message) {
-    area.innerHTML += "<br>" +
-        (message !== "" ? "<div id='text1'> " + message + "</div>" : "");
-
-    let stepByStep = document.createElement("mth-f");
-    stepByStep.id = "stepByStep";
-    area.appendChild(stepByStep);
-    stepByStep.innerHTML = math;
-
-    area.innerHTML += "<br>";
-}
\ No newline at end of file